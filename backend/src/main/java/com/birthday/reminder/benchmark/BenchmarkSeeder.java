@@ -0,0 +1,91 @@
+package com.birthday.reminder.benchmark;
+
+import com.birthday.reminder.entity.NotificationSettings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills an empty H2 database with a synthetic population, using set-based INSERT ... SELECT
+ * over {@code SYSTEM_RANGE} so that millions of rows are written without round trips.
+ * <p>
+ * Every value is derived from the user id, the birthday number and the seed, so the same
+ * settings always produce the same population: birthdays spread over every day of the year
+ * (Feb 29 included), most users notified at 08:00 and the rest on quarter hours, users spread
+ * round-robin over the configured time zones, 10% in digest mode and 5% with email disabled.
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class BenchmarkSeeder {
+
+    /**
+     * Users inserted per statement, together with their settings and birthdays.
+     */
+    private static final int BATCH_SIZE = 50_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert {@code users} users with {@code birthdaysPerUser} birthdays each.
+     *
+     * @throws IllegalStateException if the database already contains users
+     */
+    public void seed(int users, int birthdaysPerUser, List<String> timeZones, long seed) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Benchmark database must be empty, found " + existing + " users");
+        }
+
+        long start = System.nanoTime();
+        NotificationSettings defaults = NotificationSettings.builder().build();
+        String timeZoneCase = timeZoneCase(timeZones);
+
+        for (int from = 1; from <= users; from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE - 1, users);
+
+            // Identity ids start at 1 in an empty table, so user n gets id n
+            jdbcTemplate.update("INSERT INTO users (email, password, name, created_at) " +
+                    "SELECT 'bench' || X || '@example.com', 'benchmark', 'Benchmark User ' || X, CURRENT_TIMESTAMP " +
+                    "FROM SYSTEM_RANGE(?, ?)", from, to);
+
+            jdbcTemplate.update("INSERT INTO notification_settings (user_id, notification_days, notification_days_mask, " +
+                    "email_enabled, email_template, notification_time, notification_minute, time_zone, digest_enabled) " +
+                    "SELECT id, ?, ?, MOD(id, 20) <> 0, ?, " +
+                    "LPAD(CAST(m / 60 AS VARCHAR), 2, '0') || ':' || LPAD(CAST(MOD(m, 60) AS VARCHAR), 2, '0'), m, " +
+                    timeZoneCase + ", MOD(id, 10) = 0 " +
+                    "FROM (SELECT id, CASE WHEN MOD(id * 2654435761 + ?, 10) < 6 THEN 480 " +
+                    "ELSE MOD(id * 40503 + ?, 96) * 15 END AS m FROM users WHERE id BETWEEN ? AND ?)",
+                    defaults.getNotificationDays(), defaults.getNotificationDaysMask(), defaults.getEmailTemplate(),
+                    seed, seed, from, to);
+
+            jdbcTemplate.update("INSERT INTO birthdays (user_id, friend_name, birth_date, is_active, created_at, updated_at) " +
+                    "SELECT u.id, 'Friend ' || r.X, " +
+                    "DATEADD(YEAR, -4 * MOD(u.id + r.X, 10), DATEADD(DAY, MOD((u.id * 31 + r.X) * 2654435761 + ?, 366), " +
+                    "DATE '1980-01-01')), TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+                    "FROM users u CROSS JOIN SYSTEM_RANGE(1, ?) r WHERE u.id BETWEEN ? AND ?",
+                    seed, birthdaysPerUser, from, to);
+
+            log.info("Seeded {} of {} users", to, users);
+        }
+
+        log.info("Seeded {} users and {} birthdays in {} s", users, (long) users * birthdaysPerUser,
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * SQL expression picking a time zone round-robin by user id.
+     */
+    private static String timeZoneCase(List<String> timeZones) {
+        StringBuilder sql = new StringBuilder("CASE MOD(id, ").append(timeZones.size()).append(')');
+        for (int i = 0; i < timeZones.size(); i++) {
+            sql.append(" WHEN ").append(i).append(" THEN '").append(timeZones.get(i).replace("'", "''")).append('\'');
+        }
+        return sql.append(" END").toString();
+    }
+}
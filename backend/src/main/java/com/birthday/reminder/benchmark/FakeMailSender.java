@@ -0,0 +1,89 @@
+package com.birthday.reminder.benchmark;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process JavaMailSender for benchmarks. Messages are serialized, as a real transport
+ * would, then discarded after an optional simulated latency.
+ */
+@Component
+@Profile("benchmark")
+public class FakeMailSender implements JavaMailSender {
+
+    private final Session session = Session.getInstance(new Properties());
+    private final AtomicLong sent = new AtomicLong();
+    private final Duration latency;
+
+    public FakeMailSender(@Value("${app.benchmark.mail-latency:PT0S}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage(session);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) {
+        try {
+            return new MimeMessage(session, contentStream);
+        } catch (MessagingException e) {
+            throw new MailParseException("Could not parse MIME message", e);
+        }
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) {
+        for (MimeMessage message : mimeMessages) {
+            try {
+                message.writeTo(OutputStream.nullOutputStream());
+            } catch (MessagingException | IOException e) {
+                throw new MailPreparationException("Could not serialize MIME message", e);
+            }
+            simulateLatency();
+            sent.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) {
+        for (SimpleMailMessage ignored : simpleMessages) {
+            simulateLatency();
+            sent.incrementAndGet();
+        }
+    }
+
+    /**
+     * Number of messages sent since startup.
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    private void simulateLatency() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.birthday.reminder.benchmark;
+
+import com.birthday.reminder.mail.HtmlTemplate;
+import com.birthday.reminder.mail.MailPriority;
+import com.birthday.reminder.service.EmailService;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends prepared reminder-sized emails through EmailService to SmtpStubServer, once per delivery
+ * path, and reports messages per second, send latency percentiles and bytes allocated per message:
+ * <ul>
+ *     <li>{@code direct}: {@link EmailService#sendHtmlEmail(String, String, String, MailPriority)}, one at a time</li>
+ *     <li>{@code batch}: {@link EmailService#sendBatch} in batches of {@code batch-size}; a message's
+ *     latency is that of its batch</li>
+ *     <li>{@code async}: {@link EmailService#sendHtmlEmailAsync}, all submitted at once; a message's
+ *     latency runs from submission to completion</li>
+ * </ul>
+ * Bodies are rendered before timing starts, so only delivery is measured. Allocation is summed
+ * over all threads except the stub server's, so pipeline workers are included.
+ * <p>
+ * Run with {@code mvn spring-boot:run -Dspring-boot.run.profiles=mail-benchmark}; message count
+ * and injected faults are set under {@code app.benchmark} in application-mail-benchmark.yml.
+ */
+@Component
+@Profile("mail-benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class MailDeliveryBenchmark implements ApplicationRunner {
+
+    private static final HtmlTemplate BODY = HtmlTemplate.compile("""
+            <html>
+            <body style="font-family: Arial, sans-serif; padding: 20px;">
+                <div style="max-width: 600px; margin: 0 auto; background-color: #f9f9f9; padding: 20px; border-radius: 10px;">
+                    <h1 style="color: #e91e63; text-align: center;">🎂 Birthday Reminder</h1>
+                    <div style="background-color: white; padding: 20px; border-radius: 8px; margin: 20px 0;">
+                        <p style="font-size: 18px; line-height: 1.6;">Don't forget! {{name}}'s birthday is in 3 days.</p>
+                        <p style="font-size: 14px; color: #666;">📅 Date: {{date}}</p>
+                        <p style="font-size: 14px; color: #666;">🎈 Turning: 35 years old</p>
+                    </div>
+                    <p style="text-align: center; color: #999; font-size: 12px;">
+                        This reminder was sent by your Birthday Reminder App
+                    </p>
+                </div>
+            </body>
+            </html>
+            """, "name", "date");
+
+    private record Email(String to, String subject, String body) {
+    }
+
+    private record Result(int sent, int failed, long elapsedNanos, long[] latencies, long allocatedBytes) {
+    }
+
+    private final EmailService emailService;
+    private final SmtpStubServer smtpServer;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.messages:5000}")
+    private int messages;
+
+    @Value("${app.benchmark.warmup-messages:500}")
+    private int warmupMessages;
+
+    @Value("${app.benchmark.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.benchmark.paths:direct,batch,async}")
+    private List<String> paths;
+
+    @Value("${app.benchmark.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Warming up with {} messages", warmupMessages);
+        sendDirect(emails(warmupMessages), new long[warmupMessages]);
+
+        for (String path : paths) {
+            List<Email> emails = emails(messages);
+            SmtpStubServer.Stats serverBefore = smtpServer.getStats();
+            Result result = measure(path, emails);
+            SmtpStubServer.Stats server = smtpServer.getStats().minus(serverBefore);
+
+            long[] sorted = result.latencies().clone();
+            Arrays.sort(sorted);
+            log.info("{}: {} sent, {} failed in {} ms ({} messages/s), latency p50 {} ms, p99 {} ms, max {} ms, " +
+                            "{} KB allocated per message; server: {} connections, {} rejected (421), " +
+                            "{} throttled (451), {} dropped, {} accepted",
+                    path, result.sent(), result.failed(), result.elapsedNanos() / 1_000_000,
+                    String.format("%.1f", perSecond(result.sent(), result.elapsedNanos())),
+                    String.format("%.2f", percentile(sorted, 50) / 1e6), String.format("%.2f", percentile(sorted, 99) / 1e6),
+                    String.format("%.2f", (sorted.length == 0 ? 0 : sorted[sorted.length - 1]) / 1e6),
+                    String.format("%.1f", result.allocatedBytes() / 1024.0 / Math.max(emails.size(), 1)),
+                    server.connections(), server.rejectedConnections(), server.throttled(), server.dropped(),
+                    server.accepted());
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private Result measure(String path, List<Email> emails) {
+        long[] latencies = new long[emails.size()];
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        int failed = switch (path) {
+            case "direct" -> sendDirect(emails, latencies);
+            case "batch" -> sendBatched(emails, latencies);
+            case "async" -> sendAsync(emails, latencies);
+            default -> throw new IllegalArgumentException("Unknown delivery path: " + path);
+        };
+        long elapsed = System.nanoTime() - start;
+        return new Result(emails.size() - failed, failed, elapsed, latencies, allocatedBytes() - allocatedBefore);
+    }
+
+    private int sendDirect(List<Email> emails, long[] latencies) {
+        int failed = 0;
+        for (int i = 0; i < emails.size(); i++) {
+            Email email = emails.get(i);
+            long start = System.nanoTime();
+            try {
+                emailService.sendHtmlEmail(email.to(), email.subject(), email.body(), MailPriority.LATER);
+            } catch (MessagingException | MailException e) {
+                failed++;
+            }
+            latencies[i] = System.nanoTime() - start;
+        }
+        return failed;
+    }
+
+    private int sendBatched(List<Email> emails, long[] latencies) {
+        int failed = 0;
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, emails.size());
+            long start = System.nanoTime();
+            try {
+                List<MimeMessage> batch = new ArrayList<>(to - from);
+                for (Email email : emails.subList(from, to)) {
+                    batch.add(emailService.createHtmlEmail(email.to(), email.subject(), email.body()));
+                }
+                emailService.sendBatch(batch, MailPriority.LATER);
+            } catch (MailSendException e) {
+                failed += e.getFailedMessages().isEmpty() ? to - from : e.getFailedMessages().size();
+            } catch (MessagingException e) {
+                failed += to - from;
+            }
+            Arrays.fill(latencies, from, to, System.nanoTime() - start);
+        }
+        return failed;
+    }
+
+    private int sendAsync(List<Email> emails, long[] latencies) {
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[emails.size()];
+        for (int i = 0; i < emails.size(); i++) {
+            Email email = emails.get(i);
+            int index = i;
+            long start = System.nanoTime();
+            futures[i] = emailService.sendHtmlEmailAsync(email.to(), email.subject(), email::body, MailPriority.LATER)
+                    .whenComplete((sent, e) -> {
+                        latencies[index] = System.nanoTime() - start;
+                        if (e != null) {
+                            failed.incrementAndGet();
+                        }
+                    });
+        }
+        CompletableFuture.allOf(futures).exceptionally(e -> null).join();
+        return failed.get();
+    }
+
+    private static List<Email> emails(int count) {
+        List<Email> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "Friend " + i;
+            emails.add(new Email("user" + i + "@example.com", "🎂 3 days until " + name + "'s birthday!",
+                    BODY.render(name, "March 14, 1990")));
+        }
+        return emails;
+    }
+
+    /**
+     * Bytes allocated so far by all live threads except the SMTP stub's, or 0 if the JVM does not
+     * support allocation tracking.
+     */
+    private long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean allocation) || !allocation.isThreadAllocatedMemoryEnabled()) {
+            return 0;
+        }
+        Set<Long> excluded = smtpServer.getThreadIds();
+        long[] ids = Arrays.stream(allocation.getAllThreadIds()).filter(id -> !excluded.contains(id)).toArray();
+        return Arrays.stream(allocation.getThreadAllocatedBytes(ids)).filter(bytes -> bytes > 0).sum();
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, int pct) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(pct / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
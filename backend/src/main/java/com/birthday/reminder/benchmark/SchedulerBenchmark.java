@@ -0,0 +1,155 @@
+package com.birthday.reminder.benchmark;
+
+import com.birthday.reminder.entity.SchedulerRun;
+import com.birthday.reminder.repository.SchedulerRunRepository;
+import com.birthday.reminder.scheduler.BirthdayNotificationScheduler;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Seeds a synthetic population and drives BirthdayNotificationScheduler through a simulated day,
+ * one run per UTC hour, against FakeMailSender. Reports per-run latency, JDBC statements and
+ * queries issued (Hibernate statistics), heap high-water mark and emails per second.
+ * <p>
+ * Run with {@code mvn spring-boot:run -Dspring-boot.run.profiles=benchmark}; the population
+ * and day are set under {@code app.benchmark} in application-benchmark.yml.
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerBenchmark implements ApplicationRunner {
+
+    static final String RUN_TRIGGER = "benchmark";
+
+    private final BenchmarkSeeder seeder;
+    private final BirthdayNotificationScheduler scheduler;
+    private final FakeMailSender mailSender;
+    private final SchedulerRunRepository runRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.users:100000}")
+    private int users;
+
+    @Value("${app.benchmark.birthdays-per-user:10}")
+    private int birthdaysPerUser;
+
+    @Value("${app.benchmark.time-zones:UTC}")
+    private List<String> timeZones;
+
+    @Value("${app.benchmark.seed:42}")
+    private long seed;
+
+    @Value("${app.benchmark.hours:24}")
+    private int hours;
+
+    @Value("${app.benchmark.day:}")
+    private String day;
+
+    @Value("${app.benchmark.exit-when-done:true}")
+    private boolean exitWhenDone;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        timeZones.forEach(ZoneId::of);
+        seeder.seed(users, birthdaysPerUser, timeZones, seed);
+
+        // Simulate a day after the current one, so the startup catch-up checkpoint never covers it
+        LocalDate simulatedDay = day.isBlank() ? LocalDate.now(ZoneOffset.UTC).plusDays(1) : LocalDate.parse(day);
+        Instant dayStart = simulatedDay.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+
+        log.info("Simulating {} hours of {} for {} users with {} birthdays each", hours, simulatedDay, users,
+                birthdaysPerUser);
+        long[] runNanos = new long[hours];
+        long totalEmails = 0;
+        long totalStatements = 0;
+        long totalQueries = 0;
+        long heapHighWater = 0;
+
+        for (int hour = 0; hour < hours; hour++) {
+            Instant from = dayStart.plus(hour, ChronoUnit.HOURS);
+            Instant to = from.plus(1, ChronoUnit.HOURS);
+
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            statistics.clear();
+            long emailsBefore = mailSender.getSentCount();
+            long start = System.nanoTime();
+
+            scheduler.processWindow(RUN_TRIGGER, from, to);
+
+            runNanos[hour] = System.nanoTime() - start;
+            long emails = mailSender.getSentCount() - emailsBefore;
+            long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            totalEmails += emails;
+            totalStatements += statistics.getPrepareStatementCount();
+            totalQueries += statistics.getQueryExecutionCount();
+            heapHighWater = Math.max(heapHighWater, heapPeak);
+
+            SchedulerRun run = runRepository.findAllByOrderByStartedAtDesc(PageRequest.of(0, 1)).stream()
+                    .findFirst()
+                    .orElse(null);
+            log.info("{}: {} ms, {} statements, {} queries, {} users, {} reminders, {} emails ({} emails/s), " +
+                            "query {} ms, render {} ms, send {} ms, heap peak {} MB",
+                    from, runNanos[hour] / 1_000_000, statistics.getPrepareStatementCount(),
+                    statistics.getQueryExecutionCount(), run != null ? run.getUsers() : 0,
+                    run != null ? run.getFound() : 0, emails, String.format("%.1f", perSecond(emails, runNanos[hour])),
+                    run != null ? run.getQueryMs() : 0, run != null ? run.getRenderMs() : 0,
+                    run != null ? run.getSendMs() : 0, heapPeak / (1024 * 1024));
+        }
+
+        long total = Arrays.stream(runNanos).sum();
+        long[] sorted = runNanos.clone();
+        Arrays.sort(sorted);
+        log.info("Benchmark finished: {} runs in {} ms (p50 {} ms, p95 {} ms, max {} ms), {} statements, {} queries, " +
+                        "{} emails ({} emails/s), heap high-water mark {} MB",
+                hours, total / 1_000_000, percentile(sorted, 50) / 1_000_000, percentile(sorted, 95) / 1_000_000,
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000, totalStatements, totalQueries,
+                totalEmails, String.format("%.1f", perSecond(totalEmails, total)), heapHighWater / (1024 * 1024));
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private static double perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values.
+     */
+    private static long percentile(long[] sorted, int pct) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(pct / 100.0 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
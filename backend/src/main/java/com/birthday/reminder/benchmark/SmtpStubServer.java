@@ -0,0 +1,222 @@
+package com.birthday.reminder.benchmark;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal SMTP server on localhost for the mail delivery benchmark. Accepts every message and
+ * discards it, after injecting the configured faults:
+ * <ul>
+ *     <li>{@code latency}: delay before a message is acknowledged</li>
+ *     <li>{@code reject-connection-rate}: share of connections greeted with 421 and closed</li>
+ *     <li>{@code throttle-rate}: share of messages refused with 451 at MAIL FROM</li>
+ *     <li>{@code drop-rate}: share of messages after which the connection is closed without a reply</li>
+ * </ul>
+ * No TLS and no AUTH; a thread per connection, as with a real server.
+ */
+@Component
+@Profile("mail-benchmark")
+@Slf4j
+public class SmtpStubServer {
+
+    /**
+     * Counters since startup.
+     */
+    public record Stats(long connections, long rejectedConnections, long throttled, long dropped, long accepted) {
+
+        public Stats minus(Stats other) {
+            return new Stats(connections - other.connections, rejectedConnections - other.rejectedConnections,
+                    throttled - other.throttled, dropped - other.dropped, accepted - other.accepted);
+        }
+    }
+
+    private final int port;
+    private final Duration latency;
+    private final double rejectConnectionRate;
+    private final double throttleRate;
+    private final double dropRate;
+    private final Random random;
+
+    private final Set<Long> threadIds = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService connectionThreads = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-stub-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        threadIds.add(thread.getId());
+        return thread;
+    });
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong rejectedConnections = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+
+    private ServerSocket serverSocket;
+
+    public SmtpStubServer(@Value("${spring.mail.port}") int port,
+                          @Value("${app.benchmark.smtp.latency:PT0S}") Duration latency,
+                          @Value("${app.benchmark.smtp.reject-connection-rate:0}") double rejectConnectionRate,
+                          @Value("${app.benchmark.smtp.throttle-rate:0}") double throttleRate,
+                          @Value("${app.benchmark.smtp.drop-rate:0}") double dropRate,
+                          @Value("${app.benchmark.seed:42}") long seed) {
+        this.port = port;
+        this.latency = latency;
+        this.rejectConnectionRate = rejectConnectionRate;
+        this.throttleRate = throttleRate;
+        this.dropRate = dropRate;
+        this.random = new Random(seed);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-stub-accept");
+        acceptor.setDaemon(true);
+        threadIds.add(acceptor.getId());
+        acceptor.start();
+        log.info("SMTP stub listening on localhost:{} (latency {}, 421 on {}% of connections, 451 on {}% " +
+                        "and dropped connection on {}% of messages)", port, latency, rejectConnectionRate * 100,
+                throttleRate * 100, dropRate * 100);
+    }
+
+    /**
+     * Ids of the threads run by the server, so that they can be left out of client-side measurements.
+     */
+    public Set<Long> getThreadIds() {
+        return threadIds;
+    }
+
+    public Stats getStats() {
+        return new Stats(connections.get(), rejectedConnections.get(), throttled.get(), dropped.get(), accepted.get());
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionThreads.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("SMTP stub failed to accept a connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        connections.incrementAndGet();
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+
+            if (chance(rejectConnectionRate)) {
+                rejectedConnections.incrementAndGet();
+                reply(out, "421 4.7.0 localhost Too many connections, try again later");
+                return;
+            }
+            reply(out, "220 localhost ESMTP stub");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SIZE 10485760");
+                    case "HELO", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "MAIL" -> {
+                        if (chance(throttleRate)) {
+                            throttled.incrementAndGet();
+                            reply(out, "451 4.7.1 Rate limit exceeded, try again later");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "RCPT" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        if (!readData(in)) {
+                            return;
+                        }
+                        sleep(latency);
+                        if (chance(dropRate)) {
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                        accepted.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("SMTP stub connection closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Skip the message content up to the terminating dot.
+     *
+     * @return false if the client disconnected first
+     */
+    private static boolean readData(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals(".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private boolean chance(double rate) {
+        return rate > 0 && random.nextDouble() < rate;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        serverSocket.close();
+        connectionThreads.shutdownNow();
+    }
+}
@@ -0,0 +1,107 @@
+package com.birthday.reminder.controller;
+
+import com.birthday.reminder.dto.ApiResponse;
+import com.birthday.reminder.dto.MailCircuitStatsResponse;
+import com.birthday.reminder.dto.MailPipelineStatsResponse;
+import com.birthday.reminder.dto.MailQueueStatsResponse;
+import com.birthday.reminder.dto.ReminderForecastResponse;
+import com.birthday.reminder.dto.SchedulerRunResponse;
+import com.birthday.reminder.mail.MailCircuitBreaker;
+import com.birthday.reminder.mail.MailPipeline;
+import com.birthday.reminder.mail.MailRateLimiter;
+import com.birthday.reminder.repository.SchedulerRunRepository;
+import com.birthday.reminder.service.ReminderForecastService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * REST Controller for operations endpoints, restricted to the users listed in {@code app.admin.emails}.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("@adminAccess.isAdmin(authentication)")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final ReminderForecastService forecastService;
+    private final MailRateLimiter mailRateLimiter;
+    private final MailCircuitBreaker mailCircuitBreaker;
+    private final MailPipeline mailPipeline;
+    private final SchedulerRunRepository schedulerRunRepository;
+
+    /**
+     * Project the number of emails and reminders sent per hour over a date range (UTC days, inclusive).
+     * GET /api/admin/forecast?from=2024-03-01&to=2024-03-31
+     *
+     * @param from First day of the forecast (default: today)
+     * @param to Last day of the forecast (default: 6 days after from)
+     */
+    @GetMapping("/forecast")
+    public ResponseEntity<ApiResponse<ReminderForecastResponse>> getForecast(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate start = from != null ? from : LocalDate.now(ZoneOffset.UTC);
+        LocalDate end = to != null ? to : start.plusDays(6);
+        log.debug("GET /api/admin/forecast from {} to {}", start, end);
+
+        return ResponseEntity.ok(ApiResponse.success(forecastService.forecast(start, end)));
+    }
+
+    /**
+     * Get the queue depth and wait times of the outgoing mail rate limiter, per priority lane.
+     * GET /api/admin/mail-queue
+     */
+    @GetMapping("/mail-queue")
+    public ResponseEntity<ApiResponse<MailQueueStatsResponse>> getMailQueueStats() {
+        return ResponseEntity.ok(ApiResponse.success(mailRateLimiter.getStats()));
+    }
+
+    /**
+     * Get the state of the mail server circuit breaker.
+     * GET /api/admin/mail-circuit
+     */
+    @GetMapping("/mail-circuit")
+    public ResponseEntity<ApiResponse<MailCircuitStatsResponse>> getMailCircuitStats() {
+        return ResponseEntity.ok(ApiResponse.success(mailCircuitBreaker.getStats()));
+    }
+
+    /**
+     * Get the queue depths, enqueue latency and drain rate of the asynchronous mail pipeline.
+     * GET /api/admin/mail-pipeline
+     */
+    @GetMapping("/mail-pipeline")
+    public ResponseEntity<ApiResponse<MailPipelineStatsResponse>> getMailPipelineStats() {
+        return ResponseEntity.ok(ApiResponse.success(mailPipeline.getStats()));
+    }
+
+    /**
+     * Get the most recent scheduler runs, newest first.
+     * GET /api/admin/scheduler-runs?limit=20
+     *
+     * @param limit Number of runs to return (default: 20, max: 100)
+     */
+    @GetMapping("/scheduler-runs")
+    public ResponseEntity<ApiResponse<List<SchedulerRunResponse>>> getSchedulerRuns(
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (limit < 1) limit = 1;
+        if (limit > 100) limit = 100;
+
+        List<SchedulerRunResponse> runs = schedulerRunRepository.findAllByOrderByStartedAtDesc(PageRequest.of(0, limit))
+                .stream()
+                .map(SchedulerRunResponse::fromEntity)
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(runs));
+    }
+}
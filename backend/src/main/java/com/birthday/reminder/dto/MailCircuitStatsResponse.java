@@ -0,0 +1,37 @@
+package com.birthday.reminder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for the state of the mail server circuit breaker.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailCircuitStatsResponse {
+
+    /**
+     * CLOSED, OPEN or HALF_OPEN.
+     */
+    private String state;
+    private int consecutiveFailures;
+    private int failureThreshold;
+    private Instant openedAt;
+    private Instant retryAt;
+
+    /**
+     * Times the circuit has opened since startup.
+     */
+    private long trips;
+
+    /**
+     * Sends rejected while the circuit was open since startup.
+     */
+    private long rejected;
+}
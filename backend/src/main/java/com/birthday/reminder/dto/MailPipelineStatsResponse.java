@@ -0,0 +1,29 @@
+package com.birthday.reminder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the state of the asynchronous mail pipeline. Counters are since startup; the drain rate
+ * is averaged over the last minute.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailPipelineStatsResponse {
+
+    private String rejectionPolicy;
+    private int queueCapacity;
+    private int renderQueueDepth;
+    private int sendQueueDepth;
+    private long submitted;
+    private long rejected;
+    private long completed;
+    private long failed;
+    private long averageEnqueueMs;
+    private long maxEnqueueMs;
+    private double drainRatePerSecond;
+}
@@ -0,0 +1,40 @@
+package com.birthday.reminder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the state of the outgoing mail rate limiter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailQueueStatsResponse {
+
+    private boolean enabled;
+    private double permitsPerSecond;
+    private int burst;
+    private double availablePermits;
+    private List<LaneStats> lanes;
+
+    /**
+     * Counters of one priority lane since startup.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LaneStats {
+        private String lane;
+        private int queueDepth;
+        private long acquired;
+        private long timedOut;
+        private long averageWaitMs;
+        private long maxWaitMs;
+    }
+}
@@ -27,4 +27,30 @@ public class NotificationSettingsRequest {
     private String emailTemplate;
 
     private String notificationTime;
+
+    /**
+     * IANA time zone id in which notificationTime is interpreted, e.g. "Asia/Kolkata".
+     */
+    private String timeZone;
+
+    /**
+     * Combine all reminders due in one run into a single digest email.
+     */
+    private Boolean digestEnabled;
+
+    /**
+     * Day of the week (e.g. "MONDAY") to receive a week-ahead digest instead of lead-day reminders.
+     * An empty string turns the weekly digest off.
+     */
+    private String weeklyDigestDay;
+
+    /**
+     * Email a birthday wish to each friend with an email address on their birthday.
+     */
+    private Boolean greetingEnabled;
+
+    /**
+     * Local time (HH:mm) at which birthday greetings are sent, in timeZone.
+     */
+    private String greetingTime;
 }
@@ -22,6 +22,11 @@ public class NotificationSettingsResponse {
     private Boolean emailEnabled;
     private String emailTemplate;
     private String notificationTime;
+    private String timeZone;
+    private Boolean digestEnabled;
+    private String weeklyDigestDay;
+    private Boolean greetingEnabled;
+    private String greetingTime;
 
     /**
      * Convert NotificationSettings entity to response DTO.
@@ -33,6 +38,11 @@ public class NotificationSettingsResponse {
                 .emailEnabled(settings.getEmailEnabled())
                 .emailTemplate(settings.getEmailTemplate())
                 .notificationTime(settings.getNotificationTime())
+                .timeZone(settings.getTimeZone())
+                .digestEnabled(Boolean.TRUE.equals(settings.getDigestEnabled()))
+                .weeklyDigestDay(settings.getWeeklyDigestDay() != null ? settings.getWeeklyDigestDay().name() : null)
+                .greetingEnabled(settings.isGreeting())
+                .greetingTime(settings.getGreetingTime() != null ? settings.getGreetingTime() : "09:00")
                 .build();
     }
 }
@@ -0,0 +1,57 @@
+package com.birthday.reminder.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the projected number of emails and reminders per hour over a date range.
+ * A digest email carries several reminders, so there can be fewer emails than reminders.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReminderForecastResponse {
+
+    /**
+     * First day of the forecast (UTC), inclusive.
+     */
+    private LocalDate from;
+
+    /**
+     * Last day of the forecast (UTC), inclusive.
+     */
+    private LocalDate to;
+
+    private long totalEmails;
+    private long totalReminders;
+
+    /**
+     * Hour with the most emails.
+     */
+    private Instant peakHour;
+    private long peakEmails;
+
+    /**
+     * Hours with at least one reminder due, in chronological order.
+     */
+    private List<HourlyForecast> hours;
+
+    /**
+     * Emails sent and reminders due in one UTC hour.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlyForecast {
+        private Instant hour;
+        private long emails;
+        private long reminders;
+    }
+}
@@ -0,0 +1,80 @@
+package com.birthday.reminder.dto;
+
+import com.birthday.reminder.entity.SchedulerRun;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for a scheduler run history entry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerRunResponse {
+
+    private Long id;
+    private String trigger;
+    private String nodeId;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+    private Instant windowFrom;
+    private Instant windowTo;
+    private Integer shards;
+    private Integer slots;
+    private Integer users;
+    private Integer found;
+    private Integer skipped;
+    private Integer sent;
+    private Integer failed;
+    private Integer queued;
+    private Integer deferred;
+    private Long queryMs;
+    private Long renderMs;
+    private Long sendMs;
+    private Long userLatencyP50Ms;
+    private Long userLatencyP95Ms;
+    private Long userLatencyP99Ms;
+    private Long userLatencyMaxMs;
+    private String errors;
+
+    /**
+     * Convert SchedulerRun entity to response DTO.
+     */
+    public static SchedulerRunResponse fromEntity(SchedulerRun run) {
+        return SchedulerRunResponse.builder()
+                .id(run.getId())
+                .trigger(run.getTrigger())
+                .nodeId(run.getNodeId())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .durationMs(run.getFinishedAt() != null
+                        ? run.getFinishedAt().toEpochMilli() - run.getStartedAt().toEpochMilli()
+                        : null)
+                .windowFrom(run.getWindowFrom())
+                .windowTo(run.getWindowTo())
+                .shards(run.getShards())
+                .slots(run.getSlots())
+                .users(run.getUsers())
+                .found(run.getFound())
+                .skipped(run.getSkipped())
+                .sent(run.getSent())
+                .failed(run.getFailed())
+                .queued(run.getQueued())
+                .deferred(run.getDeferred())
+                .queryMs(run.getQueryMs())
+                .renderMs(run.getRenderMs())
+                .sendMs(run.getSendMs())
+                .userLatencyP50Ms(run.getUserLatencyP50Ms())
+                .userLatencyP95Ms(run.getUserLatencyP95Ms())
+                .userLatencyP99Ms(run.getUserLatencyP99Ms())
+                .userLatencyMaxMs(run.getUserLatencyMaxMs())
+                .errors(run.getErrors())
+                .build();
+    }
+}
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
  * Birthday entity representing a friend's birthday.
  */
 @Entity
-@Table(name = "birthdays")
+@Table(name = "birthdays", indexes = {
+        @Index(name = "idx_birthdays_user", columnList = "user_id")
+})
+@EntityListeners(BirthdayChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -73,11 +76,19 @@ public class Birthday {
      * Get the upcoming birthday date (this year or next year).
      */
     public LocalDate getUpcomingBirthday() {
-        LocalDate today = LocalDate.now();
+        return getUpcomingBirthday(LocalDate.now());
+    }
+
+    /**
+     * Get the upcoming birthday date relative to the given day.
+     * Feb 29 birthdays fall on Feb 28 in non-leap years.
+     */
+    public LocalDate getUpcomingBirthday(LocalDate today) {
         LocalDate thisYearBirthday = birthDate.withYear(today.getYear());
         
         if (thisYearBirthday.isBefore(today)) {
-            return thisYearBirthday.plusYears(1);
+            // Re-derive from the birth date so Feb 29 is restored in leap years
+            return birthDate.withYear(today.getYear() + 1);
         }
         return thisYearBirthday;
     }
@@ -86,8 +97,13 @@ public class Birthday {
      * Calculate days until the next birthday.
      */
     public long getDaysUntilBirthday() {
-        LocalDate today = LocalDate.now();
-        LocalDate upcomingBirthday = getUpcomingBirthday();
-        return java.time.temporal.ChronoUnit.DAYS.between(today, upcomingBirthday);
+        return getDaysUntilBirthday(LocalDate.now());
+    }
+
+    /**
+     * Calculate days until the next birthday relative to the given day.
+     */
+    public long getDaysUntilBirthday(LocalDate today) {
+        return java.time.temporal.ChronoUnit.DAYS.between(today, getUpcomingBirthday(today));
     }
 }
@@ -0,0 +1,31 @@
+package com.birthday.reminder.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle hooks of Birthday, publishing a BirthdayChangedEvent for every change.
+ * Bulk JPQL updates and deletes bypass these hooks.
+ */
+@Component
+@RequiredArgsConstructor
+public class BirthdayChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(Birthday birthday) {
+        eventPublisher.publishEvent(new BirthdayChangedEvent(
+                birthday.getId(), birthday.getBirthDate(), Boolean.TRUE.equals(birthday.getIsActive())));
+    }
+
+    @PostRemove
+    void onRemoved(Birthday birthday) {
+        eventPublisher.publishEvent(new BirthdayChangedEvent(birthday.getId(), birthday.getBirthDate(), false));
+    }
+}
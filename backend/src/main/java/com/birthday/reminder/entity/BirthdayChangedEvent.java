@@ -0,0 +1,11 @@
+package com.birthday.reminder.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a birthday is saved or removed, e.g. so BirthdayDayIndex can update its bucket.
+ *
+ * @param indexed false if the birthday was removed or deactivated
+ */
+public record BirthdayChangedEvent(long birthdayId, LocalDate birthDate, boolean indexed) {
+}
@@ -3,7 +3,11 @@ package com.birthday.reminder.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.Arrays;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,13 +15,37 @@ import java.util.stream.Collectors;
  * NotificationSettings entity for user notification preferences.
  */
 @Entity
-@Table(name = "notification_settings")
+@Table(name = "notification_settings", indexes = {
+        @Index(name = "idx_notification_settings_slot", columnList = "time_zone, notification_minute"),
+        @Index(name = "idx_notification_settings_greeting", columnList = "greeting_enabled, time_zone")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class NotificationSettings {
 
+    /**
+     * Default notification time (8 AM) as minute of day.
+     */
+    public static final int DEFAULT_NOTIFICATION_MINUTE = 8 * 60;
+
+    /**
+     * Default greeting time (9 AM) as minute of day.
+     */
+    public static final int DEFAULT_GREETING_MINUTE = 9 * 60;
+
+    /**
+     * Highest lead day a user can configure, validated in NotificationSettingsService.
+     */
+    public static final int MAX_LEAD_DAYS = 30;
+
+    /**
+     * Email template of new users.
+     */
+    public static final String DEFAULT_EMAIL_TEMPLATE =
+            "Hey! Just a reminder that {friendName}'s birthday is coming up on {birthDate}. They will be turning {age} years old!";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,31 +62,148 @@ public class NotificationSettings {
     @Builder.Default
     private String notificationDays = "7,3,1";
 
+    /**
+     * Notification days as a bit mask, kept in sync with notificationDays.
+     * Bit n is set when a notification should be sent n days before the birthday,
+     * so "7,3,1" is stored as (1 << 7) | (1 << 3) | (1 << 1). Lead days are limited to 0-{@value #MAX_LEAD_DAYS}.
+     * Null for settings built but not persisted yet; read through {@link #getNotificationDaysMask()}.
+     */
+    @Column(name = "notification_days_mask")
+    private Integer notificationDaysMask;
+
     @Column(name = "email_enabled", nullable = false)
     @Builder.Default
     private Boolean emailEnabled = true;
 
     @Column(name = "email_template", length = 2000)
     @Builder.Default
-    private String emailTemplate = "Hey! Just a reminder that {friendName}'s birthday is coming up on {birthDate}. They will be turning {age} years old!";
+    private String emailTemplate = DEFAULT_EMAIL_TEMPLATE;
+
+    /**
+     * Incremented whenever emailTemplate changes, so compiled templates can be cached by settings id and version.
+     */
+    @Column(name = "template_version")
+    @Builder.Default
+    private Integer templateVersion = 0;
 
     @Column(name = "notification_time")
     @Builder.Default
     private String notificationTime = "08:00";
 
+    /**
+     * Preferred notification time as minute of day (0-1439), kept in sync with notificationTime.
+     * Indexed so the scheduler can select only the users whose slot is due.
+     */
+    @Column(name = "notification_minute")
+    @Builder.Default
+    private Integer notificationMinute = DEFAULT_NOTIFICATION_MINUTE;
+
+    /**
+     * Time zone (IANA id, e.g. "Asia/Kolkata") in which notificationTime is interpreted.
+     * Defaults to the server's zone.
+     */
+    @Column(name = "time_zone", length = 64)
+    @Builder.Default
+    private String timeZone = ZoneId.systemDefault().getId();
+
+    /**
+     * When enabled, all reminders due for the user in one scheduler run are combined into a single digest email.
+     */
+    @Column(name = "digest_enabled")
+    @Builder.Default
+    private Boolean digestEnabled = false;
+
+    /**
+     * Day of the week on which a week-ahead digest of the next 7 days' birthdays is sent, at the
+     * notification time. When set, it replaces the lead-day reminders. Null when disabled.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "weekly_digest_day", length = 9)
+    private DayOfWeek weeklyDigestDay;
+
+    /**
+     * When enabled, a birthday wish is emailed to every friend with an email address on the birthday itself,
+     * at greetingTime in the user's time zone. Rows created before the column existed count as disabled.
+     */
+    @Column(name = "greeting_enabled")
+    @Builder.Default
+    private Boolean greetingEnabled = false;
+
+    @Column(name = "greeting_time")
+    @Builder.Default
+    private String greetingTime = "09:00";
+
+    /**
+     * Greeting time as minute of day (0-1439), kept in sync with greetingTime.
+     */
+    @Column(name = "greeting_minute")
+    @Builder.Default
+    private Integer greetingMinute = DEFAULT_GREETING_MINUTE;
+
+    @PrePersist
+    @PreUpdate
+    protected void syncDerivedFields() {
+        notificationMinute = toMinuteOfDayOrDefault(notificationTime);
+        greetingMinute = greetingTime != null ? toMinuteOfDayOrDefault(greetingTime) : DEFAULT_GREETING_MINUTE;
+        notificationDaysMask = toDaysMask(notificationDays);
+        if (timeZone == null) {
+            timeZone = ZoneId.systemDefault().getId();
+        }
+    }
+
+    /**
+     * Replace the email template, bumping the template version if it changed.
+     */
+    public void updateEmailTemplate(String template) {
+        if (!template.equals(emailTemplate)) {
+            emailTemplate = template;
+            templateVersion = templateVersion == null ? 1 : templateVersion + 1;
+        }
+    }
+
+    /**
+     * Parse a notification time string (HH:mm) to minute of day.
+     *
+     * @throws DateTimeParseException if the string is not a valid time
+     */
+    public static int toMinuteOfDay(String notificationTime) {
+        LocalTime time = LocalTime.parse(notificationTime);
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Parse a notification time string (HH:mm) to minute of day.
+     * Returns 8 AM as default if the string is empty or invalid.
+     */
+    public static int toMinuteOfDayOrDefault(String notificationTime) {
+        if (notificationTime == null || notificationTime.isEmpty()) {
+            return DEFAULT_NOTIFICATION_MINUTE;
+        }
+        try {
+            return toMinuteOfDay(notificationTime);
+        } catch (DateTimeParseException e) {
+            return DEFAULT_NOTIFICATION_MINUTE;
+        }
+    }
+
+    /**
+     * Set notification days from a comma-separated string, updating the bit mask.
+     */
+    public void setNotificationDays(String notificationDays) {
+        this.notificationDays = notificationDays;
+        this.notificationDaysMask = toDaysMask(notificationDays);
+    }
+
     /**
      * Get notification days as a list of integers.
      */
     public List<Integer> getNotificationDaysList() {
-        if (notificationDays == null || notificationDays.isEmpty()) {
-            return List.of(1);
+        int mask = getEffectiveDaysMask();
+        List<Integer> days = new ArrayList<>(Integer.bitCount(mask));
+        for (int remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            days.add(Integer.numberOfTrailingZeros(remaining));
         }
-        return Arrays.stream(notificationDays.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(Integer::parseInt)
-                .sorted()
-                .collect(Collectors.toList());
+        return days;
     }
 
     /**
@@ -73,13 +218,82 @@ public class NotificationSettings {
                     .map(String::valueOf)
                     .collect(Collectors.joining(","));
         }
+        this.notificationDaysMask = toDaysMask(this.notificationDays);
     }
 
     /**
      * Check if a specific day is in the notification days list.
      */
     public boolean shouldNotifyOnDay(int daysUntilBirthday) {
-        return getNotificationDaysList().contains(daysUntilBirthday);
+        return isDayInMask(getEffectiveDaysMask(), daysUntilBirthday);
+    }
+
+    /**
+     * Check if reminders should be combined into a digest email. Rows created before the column existed count as disabled.
+     * Week-ahead digests are always combined.
+     */
+    public boolean isDigest() {
+        return Boolean.TRUE.equals(digestEnabled) || weeklyDigestDay != null;
+    }
+
+    /**
+     * Check if birthday greetings are sent to friends. Rows created before the column existed count as disabled.
+     */
+    public boolean isGreeting() {
+        return Boolean.TRUE.equals(greetingEnabled);
+    }
+
+    /**
+     * The bit mask of notification days, derived from the string until it is set or persisted.
+     */
+    public Integer getNotificationDaysMask() {
+        return getEffectiveDaysMask();
+    }
+
+    /**
+     * The bit mask of notification days, derived from the string for settings built but not
+     * persisted yet and rows not yet backfilled.
+     */
+    public int getEffectiveDaysMask() {
+        return notificationDaysMask != null ? notificationDaysMask : toDaysMask(notificationDays);
+    }
+
+    /**
+     * Convert a comma-separated list of days to a bit mask.
+     * An empty list means 1 day before. Entries that are not a day in 0-{@value #MAX_LEAD_DAYS} are
+     * ignored rather than rejected, since this also runs from the persistence hooks; requests are
+     * validated in NotificationSettingsService.
+     */
+    public static int toDaysMask(String notificationDays) {
+        if (notificationDays == null || notificationDays.isEmpty()) {
+            return 1 << 1;
+        }
+        int mask = 0;
+        for (String part : notificationDays.split(",")) {
+            int day = parseDay(part.trim());
+            if (day >= 0 && day <= MAX_LEAD_DAYS) {
+                mask |= 1 << day;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Parse one entry of the notification days list, or return -1 if it is not a number.
+     */
+    private static int parseDay(String day) {
+        try {
+            return Integer.parseInt(day);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Check whether a day is set in a notification days bit mask.
+     */
+    public static boolean isDayInMask(int mask, int day) {
+        return day >= 0 && day < Integer.SIZE && (mask & (1 << day)) != 0;
     }
 
     /**
@@ -90,7 +304,7 @@ public class NotificationSettings {
                 .user(user)
                 .notificationDays("7,3,1")
                 .emailEnabled(true)
-                .emailTemplate("Hey! Just a reminder that {friendName}'s birthday is coming up on {birthDate}. They will be turning {age} years old!")
+                .emailTemplate(DEFAULT_EMAIL_TEMPLATE)
                 .notificationTime("08:00")
                 .build();
     }
@@ -0,0 +1,26 @@
+package com.birthday.reminder.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * High-water mark of a piece of scheduled work: every notification slot before
+ * {@code coveredUntil} has been processed. Used to replay slots missed while no node was running.
+ */
+@Entity
+@Table(name = "scheduler_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "covered_until", nullable = false)
+    private Instant coveredUntil;
+}
@@ -0,0 +1,29 @@
+package com.birthday.reminder.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A named, time-limited lease held by one application node.
+ * Used to elect which node runs a piece of scheduled work; an expired lease can be taken over.
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,98 @@
+package com.birthday.reminder.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One pass of the notification scheduler, with its counts and timings, kept for trend analysis.
+ */
+@Entity
+@Table(name = "scheduler_runs", indexes = {
+        @Index(name = "idx_scheduler_runs_started_at", columnList = "started_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * What started the run: cron, manual, wheel or catch-up.
+     */
+    @Column(name = "run_trigger", nullable = false, length = 20)
+    private String trigger;
+
+    @Column(name = "node_id", length = 200)
+    private String nodeId;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    /**
+     * Start of the notification time window processed, including any replayed catch-up period.
+     */
+    @Column(name = "window_from")
+    private Instant windowFrom;
+
+    @Column(name = "window_to")
+    private Instant windowTo;
+
+    private Integer shards;
+    private Integer slots;
+    private Integer users;
+
+    /**
+     * Reminders found due, including those already delivered by an earlier run.
+     */
+    private Integer found;
+
+    /**
+     * Reminders skipped because the sent-reminder ledger shows them as delivered.
+     */
+    private Integer skipped;
+
+    private Integer sent;
+    private Integer failed;
+    private Integer queued;
+    private Integer deferred;
+
+    @Column(name = "query_ms")
+    private Long queryMs;
+
+    @Column(name = "render_ms")
+    private Long renderMs;
+
+    @Column(name = "send_ms")
+    private Long sendMs;
+
+    /**
+     * Percentiles of the time taken to deliver all of one user's reminders in the run.
+     */
+    @Column(name = "user_latency_p50_ms")
+    private Long userLatencyP50Ms;
+
+    @Column(name = "user_latency_p95_ms")
+    private Long userLatencyP95Ms;
+
+    @Column(name = "user_latency_p99_ms")
+    private Long userLatencyP99Ms;
+
+    @Column(name = "user_latency_max_ms")
+    private Long userLatencyMaxMs;
+
+    /**
+     * Failed sends per exception type, e.g. "MailSendException=3, MessagingException=1",
+     * or the error that aborted the run.
+     */
+    @Column(length = 2000)
+    private String errors;
+}
@@ -0,0 +1,45 @@
+package com.birthday.reminder.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger entry recording that the birthday greeting for one birthday occurrence was emailed to the friend.
+ * Kept apart from the reminder ledger (SentReminder), so greetings and reminders to the user never
+ * suppress each other. The unique key (birthday, birthday year) lets re-runs skip greetings already sent.
+ */
+@Entity
+@Table(name = "sent_greetings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sent_greetings_key", columnNames = {"birthday_id", "birthday_year"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SentGreeting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "birthday_id", nullable = false)
+    private Long birthdayId;
+
+    /**
+     * Year of the birthday occurrence the greeting was for.
+     */
+    @Column(name = "birthday_year", nullable = false)
+    private Integer birthdayYear;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (sentAt == null) {
+            sentAt = LocalDateTime.now();
+        }
+    }
+}
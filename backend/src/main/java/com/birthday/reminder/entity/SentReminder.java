@@ -0,0 +1,48 @@
+package com.birthday.reminder.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger entry recording that the reminder for one birthday occurrence and lead day was delivered.
+ * The unique key (birthday, birthday year, lead day) lets re-runs skip reminders already sent.
+ * The birthday is referenced by id only, so the ledger stays compact and does not block deletes.
+ */
+@Entity
+@Table(name = "sent_reminders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sent_reminders_key", columnNames = {"birthday_id", "birthday_year", "lead_day"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SentReminder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "birthday_id", nullable = false)
+    private Long birthdayId;
+
+    /**
+     * Year of the birthday occurrence the reminder was for.
+     */
+    @Column(name = "birthday_year", nullable = false)
+    private Integer birthdayYear;
+
+    @Column(name = "lead_day", nullable = false)
+    private Integer leadDay;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (sentAt == null) {
+            sentAt = LocalDateTime.now();
+        }
+    }
+}
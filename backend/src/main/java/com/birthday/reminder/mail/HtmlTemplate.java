@@ -0,0 +1,164 @@
+package com.birthday.reminder.mail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HTML template parsed once into literal segments and named slots, rendered in a single pass.
+ * <p>
+ * {@code {{name}}} is replaced by the HTML-escaped value; {@code {{&name}}} inserts the value as is,
+ * for fragments that are already HTML. Values are passed positionally, in the order of the slot
+ * names given to {@link #compile}. Rendering appends to a per-thread buffer that is reused across
+ * calls and pre-sized to the template, so a render allocates little more than the resulting string.
+ * Immutable and thread-safe.
+ */
+public final class HtmlTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    /**
+     * Estimated length of a slot value, used to pre-size the render buffer.
+     */
+    private static final int ESTIMATED_VALUE_LENGTH = 32;
+
+    /**
+     * Buffers that grew beyond this after a render are dropped rather than kept for the thread.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+    private final String[] literals;
+    private final int[] slots;
+    private final boolean[] escaped;
+    private final int slotCount;
+    private final int estimatedLength;
+
+    private HtmlTemplate(String[] literals, int[] slots, boolean[] escaped, int slotCount) {
+        this.literals = literals;
+        this.slots = slots;
+        this.escaped = escaped;
+        this.slotCount = slotCount;
+        this.estimatedLength = Arrays.stream(literals).mapToInt(String::length).sum()
+                + slots.length * ESTIMATED_VALUE_LENGTH;
+    }
+
+    /**
+     * Parse a template whose slots are exactly the given names.
+     *
+     * @throws IllegalArgumentException if the template uses an undeclared slot, leaves a declared one
+     *                                  unused, or has an unterminated slot
+     */
+    public static HtmlTemplate compile(String source, String... slotNames) {
+        List<String> names = Arrays.asList(slotNames);
+        boolean[] used = new boolean[slotNames.length];
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated slot at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            boolean raw = name.startsWith("&");
+            if (raw) {
+                name = name.substring(1).trim();
+            }
+            int slot = names.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Undeclared slot '" + name + "' at offset " + open);
+            }
+            used[slot] = true;
+            literals.add(source.substring(position, open));
+            slots.add(slot);
+            escaped.add(!raw);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+
+        for (int i = 0; i < used.length; i++) {
+            if (!used[i]) {
+                throw new IllegalArgumentException("Slot '" + slotNames[i] + "' is not used by the template");
+            }
+        }
+
+        boolean[] escapedArray = new boolean[escaped.size()];
+        for (int i = 0; i < escapedArray.length; i++) {
+            escapedArray[i] = escaped.get(i);
+        }
+        return new HtmlTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray(),
+                escapedArray, slotNames.length);
+    }
+
+    /**
+     * Render the template with one value per declared slot, in declaration order.
+     * Null values render as empty.
+     */
+    public String render(CharSequence... values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(estimatedLength);
+        renderTo(buffer, values);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Append the rendered template to the given builder, e.g. to collect repeated rows.
+     */
+    public void renderTo(StringBuilder out, CharSequence... values) {
+        if (values.length != slotCount) {
+            throw new IllegalArgumentException("Expected " + slotCount + " values, got " + values.length);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]);
+            CharSequence value = values[slots[i]];
+            if (value == null) {
+                continue;
+            }
+            if (escaped[i]) {
+                escapeTo(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[slots.length]);
+    }
+
+    /**
+     * HTML-escape a value, e.g. before substituting it into other markup.
+     */
+    public static String escape(CharSequence value) {
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        escapeTo(out, value);
+        return out.toString();
+    }
+
+    static void escapeTo(StringBuilder out, CharSequence value) {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+}
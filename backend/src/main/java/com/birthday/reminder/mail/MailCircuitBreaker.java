@@ -0,0 +1,187 @@
+package com.birthday.reminder.mail;
+
+import com.birthday.reminder.dto.MailCircuitStatsResponse;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Circuit breaker around the mail server.
+ * <ul>
+ *     <li>CLOSED: sends go through; {@code failure-threshold} consecutive failures open the circuit.</li>
+ *     <li>OPEN: sends are rejected immediately for {@code open-duration}.</li>
+ *     <li>HALF_OPEN: up to {@code half-open-probes} sends go through as probes; a successful probe
+ *     closes the circuit, a failed one opens it again.</li>
+ * </ul>
+ * Only failures of the mail server itself count, see {@link #isServerFailure}.
+ */
+@Component
+@Slf4j
+public class MailCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int probesInFlight;
+    private Instant openedAt;
+    private long trips;
+    private long rejected;
+
+    public MailCircuitBreaker(@Value("${app.mail.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                              @Value("${app.mail.circuit-breaker.open-duration:PT1M}") Duration openDuration,
+                              @Value("${app.mail.circuit-breaker.half-open-probes:1}") int halfOpenProbes) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Ask to send a message. Every permitted send must be followed by exactly one call to
+     * {@link #recordSuccess()}, {@link #recordFailure()} or {@link #release()}.
+     *
+     * @return false if the circuit is open and the send should fail fast
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (Instant.now().isBefore(getRetryAt())) {
+                rejected++;
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            log.info("Mail circuit breaker half-open, probing the mail server");
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                rejected++;
+                return false;
+            }
+            probesInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * Record a successful send. Closes a half-open circuit; a late success of a send started before
+     * the circuit opened leaves an open circuit open.
+     */
+    public synchronized void recordSuccess() {
+        switch (state) {
+            case CLOSED -> consecutiveFailures = 0;
+            case HALF_OPEN -> {
+                state = State.CLOSED;
+                consecutiveFailures = 0;
+                probesInFlight = 0;
+                log.info("Mail circuit breaker closed after a successful probe");
+            }
+            case OPEN -> {
+                // Not a probe; the circuit stays open until its open duration has passed
+            }
+        }
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = Instant.now();
+            probesInFlight = 0;
+            trips++;
+            log.warn("Mail circuit breaker opened after {} consecutive failures; retrying at {}",
+                    consecutiveFailures, getRetryAt());
+        }
+    }
+
+    /**
+     * Check if a failed send means the mail server is unavailable: it could not be reached, refused
+     * the login or failed the transaction. Failures of one message, such as a message that could not
+     * be prepared or recipients the server rejected, say nothing about the server and do not count.
+     */
+    public static boolean isServerFailure(MailException e) {
+        if (e instanceof MailPreparationException || e instanceof MailParseException) {
+            return false;
+        }
+        if (e instanceof MailSendException sendException) {
+            if (isRecipientRejection(sendException.getCause())) {
+                return false;
+            }
+            Collection<Exception> failures = sendException.getFailedMessages().values();
+            return failures.isEmpty() || !failures.stream().allMatch(MailCircuitBreaker::isRecipientRejection);
+        }
+        return true;
+    }
+
+    /**
+     * Check if a failure, or one of its causes, is the rejection of invalid recipient addresses.
+     */
+    private static boolean isRecipientRejection(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof AddressException) {
+                return true;
+            }
+            if (cause instanceof SendFailedException failed
+                    && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Give back a permitted send that was not attempted.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Check if sends are currently being rejected.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && Instant.now().isBefore(getRetryAt());
+    }
+
+    /**
+     * When an open circuit lets the next probe through.
+     */
+    public synchronized Instant getRetryAt() {
+        return openedAt != null ? openedAt.plus(openDuration) : Instant.now();
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized MailCircuitStatsResponse getStats() {
+        return MailCircuitStatsResponse.builder()
+                .state(state.name())
+                .consecutiveFailures(consecutiveFailures)
+                .failureThreshold(failureThreshold)
+                .openedAt(state == State.CLOSED ? null : openedAt)
+                .retryAt(state == State.OPEN ? getRetryAt() : null)
+                .trips(trips)
+                .rejected(rejected)
+                .build();
+    }
+}
@@ -0,0 +1,304 @@
+package com.birthday.reminder.mail;
+
+import com.birthday.reminder.dto.MailPipelineStatsResponse;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous mail pipeline in two stages, each with its own bounded queue and worker threads:
+ * rendering builds the message (CPU-bound), sending hands it to the mail server (I/O-bound), so
+ * the rendering of one message overlaps the sending of others. A full send queue blocks the render
+ * workers, so a slow mail server pushes back on submitters through the render queue.
+ * <p>
+ * When the render queue is full, {@code rejection-policy} decides: {@code fail} completes the future
+ * exceptionally at once, {@code wait} waits up to {@code enqueue-timeout} for room before failing,
+ * and {@code caller-runs} renders and sends in the submitting thread.
+ * <p>
+ * The worker threads are started by the first submitted message, so nodes that never use the
+ * pipeline do not keep them.
+ */
+@Component
+@Slf4j
+public class MailPipeline {
+
+    public enum RejectionPolicy {
+        FAIL,
+        WAIT,
+        CALLER_RUNS
+    }
+
+    /**
+     * Seconds over which the drain rate is averaged.
+     */
+    private static final int DRAIN_RATE_WINDOW_SECONDS = 60;
+
+    private static final class Job {
+        final Callable<MimeMessage> render;
+        final Consumer<MimeMessage> send;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        MimeMessage message;
+
+        Job(Callable<MimeMessage> render, Consumer<MimeMessage> send) {
+            this.render = render;
+            this.send = send;
+        }
+    }
+
+    private final int renderThreads;
+    private final int sendThreads;
+    private final RejectionPolicy rejectionPolicy;
+    private final long enqueueTimeoutNanos;
+    private final int queueCapacity;
+    private final BlockingQueue<Job> renderQueue;
+    private final BlockingQueue<Job> sendQueue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+    private volatile boolean started;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalEnqueueNanos = new AtomicLong();
+    private final AtomicLong maxEnqueueNanos = new AtomicLong();
+
+    /** Sends completed per second, indexed by epoch second modulo the window; each slot tagged with its second. */
+    private final AtomicLongArray drainCounts = new AtomicLongArray(DRAIN_RATE_WINDOW_SECONDS);
+    private final AtomicLongArray drainSeconds = new AtomicLongArray(DRAIN_RATE_WINDOW_SECONDS);
+
+    public MailPipeline(@Value("${app.mail.pipeline.render-threads:2}") int renderThreads,
+                        @Value("${app.mail.pipeline.send-threads:4}") int sendThreads,
+                        @Value("${app.mail.pipeline.queue-capacity:1000}") int queueCapacity,
+                        @Value("${app.mail.pipeline.rejection-policy:wait}") String rejectionPolicy,
+                        @Value("${app.mail.pipeline.enqueue-timeout:PT5S}") Duration enqueueTimeout) {
+        this.renderThreads = renderThreads;
+        this.sendThreads = sendThreads;
+        this.rejectionPolicy = RejectionPolicy.valueOf(rejectionPolicy.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        this.queueCapacity = queueCapacity;
+        this.renderQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sendQueue = new ArrayBlockingQueue<>(Math.max(1, sendThreads * 2));
+    }
+
+    private void ensureStarted() {
+        if (started) {
+            return;
+        }
+        synchronized (workers) {
+            if (!started && running) {
+                startWorkers(renderThreads, new CustomizableThreadFactory("mail-render-"), this::renderLoop);
+                startWorkers(sendThreads, new CustomizableThreadFactory("mail-send-"), this::sendLoop);
+                started = true;
+            }
+        }
+    }
+
+    private void startWorkers(int count, ThreadFactory threadFactory, Runnable loop) {
+        for (int i = 0; i < count; i++) {
+            Thread worker = threadFactory.newThread(loop);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * Queue a message for rendering and sending.
+     *
+     * @param render builds the message; runs on a render worker
+     * @param send   hands the message to the mail server; runs on a send worker
+     * @return completes once the message is sent, or exceptionally if rendering or sending failed or
+     * the pipeline rejected it ({@link RejectedExecutionException})
+     */
+    public CompletableFuture<Void> submit(Callable<MimeMessage> render, Consumer<MimeMessage> send) {
+        ensureStarted();
+        Job job = new Job(render, send);
+        submitted.incrementAndGet();
+
+        long start = System.nanoTime();
+        boolean queued;
+        try {
+            queued = running && (rejectionPolicy == RejectionPolicy.WAIT
+                    ? renderQueue.offer(job, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)
+                    : renderQueue.offer(job));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        recordEnqueue(System.nanoTime() - start);
+
+        if (!queued) {
+            if (running && rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+                if (render(job)) {
+                    send(job);
+                }
+            } else {
+                rejected.incrementAndGet();
+                job.future.completeExceptionally(new RejectedExecutionException(
+                        "Mail pipeline queue is full (" + queueCapacity + " messages)"));
+            }
+        }
+        return job.future;
+    }
+
+    private void renderLoop() {
+        while (running) {
+            Job job = null;
+            try {
+                job = renderQueue.take();
+                if (!render(job)) {
+                    continue;
+                }
+                if (!running) {
+                    // Shut down while rendering, possibly with the interrupt swallowed by the render
+                    cancel(job);
+                    return;
+                }
+                sendQueue.put(job);
+                if (!running) {
+                    // Handed over after shutdown drained the send queue, which no worker takes from anymore
+                    List<Job> pending = new ArrayList<>();
+                    sendQueue.drainTo(pending);
+                    pending.forEach(this::cancel);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by shutdown while holding a job that is in neither queue
+                if (job != null) {
+                    cancel(job);
+                }
+                return;
+            }
+        }
+    }
+
+    private void sendLoop() {
+        while (running) {
+            try {
+                send(sendQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if rendering failed and the job's future was completed exceptionally
+     */
+    private boolean render(Job job) {
+        try {
+            job.message = job.render.call();
+            return true;
+        } catch (Exception e) {
+            fail(job, e);
+            return false;
+        }
+    }
+
+    private void send(Job job) {
+        try {
+            job.send.accept(job.message);
+        } catch (RuntimeException e) {
+            fail(job, e);
+            return;
+        }
+        completed.incrementAndGet();
+        recordDrain();
+        job.future.complete(null);
+    }
+
+    private void fail(Job job, Exception e) {
+        failed.incrementAndGet();
+        log.debug("Pipelined mail failed: {}", e.getMessage());
+        job.future.completeExceptionally(e);
+    }
+
+    private void cancel(Job job) {
+        job.future.completeExceptionally(new CancellationException("Mail pipeline shut down"));
+    }
+
+    private void recordEnqueue(long nanos) {
+        totalEnqueueNanos.addAndGet(nanos);
+        maxEnqueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void recordDrain() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        int slot = (int) (second % DRAIN_RATE_WINDOW_SECONDS);
+        long slotSecond = drainSeconds.get(slot);
+        if (slotSecond != second && drainSeconds.compareAndSet(slot, slotSecond, second)) {
+            drainCounts.set(slot, 0);
+        }
+        drainCounts.incrementAndGet(slot);
+    }
+
+    /**
+     * Messages sent per second, averaged over the last minute.
+     */
+    private double drainRate() {
+        long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long count = 0;
+        for (int slot = 0; slot < DRAIN_RATE_WINDOW_SECONDS; slot++) {
+            if (now - drainSeconds.get(slot) < DRAIN_RATE_WINDOW_SECONDS) {
+                count += drainCounts.get(slot);
+            }
+        }
+        return (double) count / DRAIN_RATE_WINDOW_SECONDS;
+    }
+
+    public MailPipelineStatsResponse getStats() {
+        long submittedCount = submitted.get();
+        return MailPipelineStatsResponse.builder()
+                .rejectionPolicy(rejectionPolicy.name())
+                .queueCapacity(queueCapacity)
+                .renderQueueDepth(renderQueue.size())
+                .sendQueueDepth(sendQueue.size())
+                .submitted(submittedCount)
+                .rejected(rejected.get())
+                .completed(completed.get())
+                .failed(failed.get())
+                .averageEnqueueMs(submittedCount == 0 ? 0
+                        : TimeUnit.NANOSECONDS.toMillis(totalEnqueueNanos.get() / submittedCount))
+                .maxEnqueueMs(TimeUnit.NANOSECONDS.toMillis(maxEnqueueNanos.get()))
+                .drainRatePerSecond(drainRate())
+                .build();
+    }
+
+    /**
+     * Stop the workers and fail the messages still queued.
+     */
+    @PreDestroy
+    void shutdown() {
+        synchronized (workers) {
+            running = false;
+            workers.forEach(Thread::interrupt);
+        }
+        List<Job> pending = new ArrayList<>();
+        renderQueue.drainTo(pending);
+        sendQueue.drainTo(pending);
+        pending.forEach(this::cancel);
+        if (!pending.isEmpty()) {
+            log.warn("Mail pipeline shut down with {} messages not sent", pending.size());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.birthday.reminder.mail;
+
+/**
+ * Priority lane of an outgoing email. When send capacity is short, lanes are served in
+ * declaration order: today's reminders first, then tomorrow's, then everything else, and
+ * birthday greetings to friends last.
+ */
+public enum MailPriority {
+    TODAY,
+    TOMORROW,
+    LATER,
+    GREETING;
+
+    /**
+     * The lane of a reminder sent {@code daysUntil} days before the birthday.
+     */
+    public static MailPriority forDaysUntil(int daysUntil) {
+        if (daysUntil <= 0) {
+            return TODAY;
+        }
+        return daysUntil == 1 ? TOMORROW : LATER;
+    }
+}
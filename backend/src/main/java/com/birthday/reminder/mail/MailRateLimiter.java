@@ -0,0 +1,155 @@
+package com.birthday.reminder.mail;
+
+import com.birthday.reminder.dto.MailQueueStatsResponse;
+import com.birthday.reminder.dto.MailQueueStatsResponse.LaneStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces outgoing email to the provider's rate with a token bucket.
+ * Senders wait in a queue ordered by priority lane (then arrival), and only the head of the queue
+ * may take a token, so urgent mail goes out first when capacity is short.
+ */
+@Component
+@Slf4j
+public class MailRateLimiter {
+
+    private final boolean enabled;
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Duration maxWait;
+    private final TokenBucket bucket;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queueChanged = lock.newCondition();
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+    private final Lane[] lanes = new Lane[MailPriority.values().length];
+    private long nextSequence;
+
+    /**
+     * A sender waiting for a token.
+     */
+    private record Ticket(MailPriority priority, long sequence) implements Comparable<Ticket> {
+        @Override
+        public int compareTo(Ticket other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Queue depth and wait time counters of one lane, guarded by the lock.
+     */
+    private static class Lane {
+        int depth;
+        long acquired;
+        long timedOut;
+        long totalWaitNanos;
+        long maxWaitNanos;
+    }
+
+    public MailRateLimiter(@Value("${app.mail.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.mail.rate-limit.permits-per-second:10}") double permitsPerSecond,
+                           @Value("${app.mail.rate-limit.burst:10}") int burst,
+                           @Value("${app.mail.rate-limit.max-wait:PT5M}") Duration maxWait) {
+        this.enabled = enabled;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxWait = maxWait;
+        this.bucket = new TokenBucket(permitsPerSecond, burst, System.nanoTime());
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Wait for a send permit in the given lane.
+     *
+     * @return false if no permit became available within the maximum wait
+     */
+    public boolean acquire(MailPriority priority) throws InterruptedException {
+        if (!enabled) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + maxWait.toNanos();
+        Lane lane = lanes[priority.ordinal()];
+
+        lock.lock();
+        try {
+            Ticket ticket = new Ticket(priority, nextSequence++);
+            waiting.add(ticket);
+            lane.depth++;
+            try {
+                while (true) {
+                    long now = System.nanoTime();
+                    long waitNanos = deadline - now;
+                    if (waiting.peek() == ticket) {
+                        long untilToken = bucket.tryConsume(now);
+                        if (untilToken == 0) {
+                            long waited = now - start;
+                            lane.acquired++;
+                            lane.totalWaitNanos += waited;
+                            lane.maxWaitNanos = Math.max(lane.maxWaitNanos, waited);
+                            return true;
+                        }
+                        waitNanos = Math.min(waitNanos, untilToken);
+                    }
+                    if (deadline - now <= 0) {
+                        lane.timedOut++;
+                        log.warn("Timed out after {} waiting for a mail send permit ({} lane)", maxWait, priority);
+                        return false;
+                    }
+                    queueChanged.awaitNanos(waitNanos);
+                }
+            } finally {
+                waiting.remove(ticket);
+                lane.depth--;
+                queueChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current queue depth and wait time statistics per lane.
+     */
+    public MailQueueStatsResponse getStats() {
+        lock.lock();
+        try {
+            List<LaneStats> laneStats = new ArrayList<>(lanes.length);
+            for (MailPriority priority : MailPriority.values()) {
+                Lane lane = lanes[priority.ordinal()];
+                laneStats.add(LaneStats.builder()
+                        .lane(priority.name())
+                        .queueDepth(lane.depth)
+                        .acquired(lane.acquired)
+                        .timedOut(lane.timedOut)
+                        .averageWaitMs(lane.acquired == 0 ? 0
+                                : TimeUnit.NANOSECONDS.toMillis(lane.totalWaitNanos / lane.acquired))
+                        .maxWaitMs(TimeUnit.NANOSECONDS.toMillis(lane.maxWaitNanos))
+                        .build());
+            }
+            return MailQueueStatsResponse.builder()
+                    .enabled(enabled)
+                    .permitsPerSecond(permitsPerSecond)
+                    .burst(burst)
+                    .availablePermits(enabled ? bucket.available(System.nanoTime()) : burst)
+                    .lanes(laneStats)
+                    .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
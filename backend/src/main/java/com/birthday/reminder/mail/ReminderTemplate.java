@@ -0,0 +1,141 @@
+package com.birthday.reminder.mail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A user's reminder email template, parsed into literal segments and placeholders so that a
+ * reminder renders in one pass. Supported placeholders are {@code {friendName}}, {@code {birthDate}},
+ * {@code {age}} and {@code {daysUntil}}; braces around anything but a word are plain text.
+ * The friend name is HTML-escaped, the template text itself is used as is. Immutable and thread-safe.
+ */
+public final class ReminderTemplate {
+
+    public enum Placeholder {
+        FRIEND_NAME("friendName"),
+        BIRTH_DATE("birthDate"),
+        AGE("age"),
+        DAYS_UNTIL("daysUntil");
+
+        private final String token;
+
+        Placeholder(String token) {
+            this.token = token;
+        }
+
+        public String getToken() {
+            return "{" + token + "}";
+        }
+
+        static Placeholder fromName(String name) {
+            for (Placeholder placeholder : values()) {
+                if (placeholder.token.equals(name)) {
+                    return placeholder;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final String SUPPORTED = Arrays.stream(Placeholder.values())
+            .map(Placeholder::getToken)
+            .collect(Collectors.joining(", "));
+
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+    private final int estimatedLength;
+
+    private ReminderTemplate(String[] literals, Placeholder[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.estimatedLength = Arrays.stream(literals).mapToInt(String::length).sum() + placeholders.length * 24;
+    }
+
+    /**
+     * Parse a template, rejecting unknown placeholders.
+     *
+     * @throws IllegalArgumentException naming the first unknown placeholder
+     */
+    public static ReminderTemplate compile(String source) {
+        return parse(source, true);
+    }
+
+    /**
+     * Parse a template, keeping unknown placeholders as plain text. For templates saved before
+     * they were validated.
+     */
+    public static ReminderTemplate compileLenient(String source) {
+        return parse(source, false);
+    }
+
+    private static ReminderTemplate parse(String source, boolean strict) {
+        List<String> literals = new ArrayList<>();
+        List<Placeholder> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf('{', position);
+            int close = open < 0 ? -1 : source.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            String name = source.substring(open + 1, close);
+            if (!isWord(name)) {
+                // Not a placeholder; keep the brace and look for the next one
+                literal.append(source, position, open + 1);
+                position = open + 1;
+                continue;
+            }
+            Placeholder placeholder = Placeholder.fromName(name);
+            if (placeholder == null) {
+                if (strict) {
+                    throw new IllegalArgumentException("Unknown placeholder {" + name + "} in email template. " +
+                            "Supported placeholders: " + SUPPORTED);
+                }
+                literal.append(source, position, close + 1);
+            } else {
+                literal.append(source, position, open);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                placeholders.add(placeholder);
+            }
+            position = close + 1;
+        }
+        literal.append(source, position, source.length());
+        literals.add(literal.toString());
+
+        return new ReminderTemplate(literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+
+    private static boolean isWord(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isLetterOrDigit(name.charAt(i)) && name.charAt(i) != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Render the template for one reminder.
+     */
+    public String render(String friendName, String birthDate, int age, int daysUntil) {
+        StringBuilder out = new StringBuilder(estimatedLength);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            switch (placeholders[i]) {
+                case FRIEND_NAME -> HtmlTemplate.escapeTo(out, friendName);
+                case BIRTH_DATE -> out.append(birthDate);
+                case AGE -> out.append(age);
+                case DAYS_UNTIL -> out.append(daysUntil);
+            }
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.birthday.reminder.mail;
+
+import com.birthday.reminder.entity.NotificationSettings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiled reminder templates, keyed by settings id and template version, least recently used
+ * first out. Users on the default template share one compiled copy and take no cache entry.
+ */
+@Component
+@Slf4j
+public class ReminderTemplateCache {
+
+    private static final ReminderTemplate DEFAULT_TEMPLATE =
+            ReminderTemplate.compile(NotificationSettings.DEFAULT_EMAIL_TEMPLATE);
+
+    private record Entry(Integer version, ReminderTemplate template) {
+    }
+
+    private final Map<Long, Entry> cache;
+
+    public ReminderTemplateCache(@Value("${app.mail.template-cache-size:10000}") int maxSize) {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * The compiled form of the settings' current template, compiling it on a miss.
+     */
+    public ReminderTemplate get(NotificationSettings settings) {
+        String source = settings.getEmailTemplate();
+        if (source == null || NotificationSettings.DEFAULT_EMAIL_TEMPLATE.equals(source)) {
+            return DEFAULT_TEMPLATE;
+        }
+        if (settings.getId() == null) {
+            return compile(settings);
+        }
+
+        Entry entry = cache.get(settings.getId());
+        if (entry != null && Objects.equals(entry.version(), settings.getTemplateVersion())) {
+            return entry.template();
+        }
+        ReminderTemplate template = compile(settings);
+        cache.put(settings.getId(), new Entry(settings.getTemplateVersion(), template));
+        return template;
+    }
+
+    /**
+     * Cache a template compiled when the settings were saved, once the save commits.
+     */
+    public void put(NotificationSettings settings, ReminderTemplate template) {
+        Long id = settings.getId();
+        Entry entry = new Entry(settings.getTemplateVersion(), template);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(id, entry);
+                }
+            });
+        } else {
+            cache.put(id, entry);
+        }
+    }
+
+    private static ReminderTemplate compile(NotificationSettings settings) {
+        try {
+            return ReminderTemplate.compile(settings.getEmailTemplate());
+        } catch (IllegalArgumentException e) {
+            log.warn("Email template of settings {} is invalid, rendering unknown placeholders as text: {}",
+                    settings.getId(), e.getMessage());
+            return ReminderTemplate.compileLenient(settings.getEmailTemplate());
+        }
+    }
+}
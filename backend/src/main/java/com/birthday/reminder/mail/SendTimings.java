@@ -0,0 +1,144 @@
+package com.birthday.reminder.mail;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates render time, send time and errors of the emails sent while it is bound to the
+ * sending thread. EmailService reports to the collector bound to the current thread, if any,
+ * so callers can measure a batch of sends without changing the send methods.
+ */
+public class SendTimings {
+
+    private static final ThreadLocal<SendTimings> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder renderNanos = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    /**
+     * Bind a collector to the current thread until {@link #unbind()}.
+     */
+    public static void bind(SendTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wrap a step of a send that runs on another thread, e.g. a MailPipeline worker, so it reports
+     * its timings and errors to the collector bound to the calling thread, if any.
+     */
+    public static <T> Callable<T> propagate(Callable<T> step) {
+        SendTimings timings = CURRENT.get();
+        if (timings == null) {
+            return step;
+        }
+        return () -> {
+            SendTimings previous = CURRENT.get();
+            bind(timings);
+            try {
+                return step.call();
+            } catch (Exception e) {
+                recordError(e);
+                throw e;
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Like {@link #propagate(Callable)}, for a step consuming the result of an earlier one.
+     */
+    public static <T> Consumer<T> propagate(Consumer<T> step) {
+        SendTimings timings = CURRENT.get();
+        if (timings == null) {
+            return step;
+        }
+        return value -> {
+            SendTimings previous = CURRENT.get();
+            bind(timings);
+            try {
+                step.accept(value);
+            } catch (RuntimeException e) {
+                recordError(e);
+                throw e;
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    static void recordRender(long nanos) {
+        SendTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.renderNanos.add(nanos);
+        }
+    }
+
+    static void recordSend(long nanos) {
+        SendTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.sendNanos.add(nanos);
+        }
+    }
+
+    /**
+     * Count a failed send by exception type.
+     */
+    public static void recordError(Exception e) {
+        SendTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.errors.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Time a render step of the current send.
+     */
+    public static <T> T timeRender(Supplier<T> render) {
+        long start = System.nanoTime();
+        try {
+            return render.get();
+        } finally {
+            recordRender(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Time the hand-over of a message to the mail server.
+     */
+    public static void timeSend(Runnable send) {
+        long start = System.nanoTime();
+        try {
+            send.run();
+        } finally {
+            recordSend(System.nanoTime() - start);
+        }
+    }
+
+    public long getRenderNanos() {
+        return renderNanos.sum();
+    }
+
+    public long getSendNanos() {
+        return sendNanos.sum();
+    }
+
+    /**
+     * Failed sends per exception type, sorted by type.
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> counts = new TreeMap<>();
+        errors.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,210 @@
+package com.birthday.reminder.mail;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Pool of connected, authenticated SMTP transports, so consecutive sends skip the TCP, STARTTLS
+ * and AUTH handshake. At most {@code max-transports} are open at once; a transport is closed after
+ * {@code max-messages-per-transport} messages, after any error, and when it has been idle longer
+ * than {@code idle-timeout}, since servers drop idle sessions.
+ * <p>
+ * Only used with a {@link JavaMailSenderImpl}; with any other sender (e.g. a test double) the pool
+ * is disabled and messages go through {@link JavaMailSender#send(MimeMessage...)}.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool {
+
+    private final JavaMailSender mailSender;
+    private final JavaMailSenderImpl smtpSender;
+    private final int maxMessagesPerTransport;
+    private final long idleTimeoutNanos;
+    private final Semaphore transports;
+
+    /** Idle transports, most recently used first. Guarded by itself. */
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+
+    private static final class PooledTransport {
+        final Transport transport;
+        int messages;
+        long lastUsed;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    public SmtpTransportPool(JavaMailSender mailSender,
+                             @Value("${app.mail.pool.enabled:true}") boolean enabled,
+                             @Value("${app.mail.pool.max-transports:4}") int maxTransports,
+                             @Value("${app.mail.pool.max-messages-per-transport:100}") int maxMessagesPerTransport,
+                             @Value("${app.mail.pool.idle-timeout:PT30S}") Duration idleTimeout) {
+        this.mailSender = mailSender;
+        this.smtpSender = enabled && mailSender instanceof JavaMailSenderImpl impl ? impl : null;
+        this.maxMessagesPerTransport = maxMessagesPerTransport;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.transports = new Semaphore(maxTransports, true);
+        if (smtpSender == null) {
+            log.info("SMTP transport pool disabled, sending through {}", mailSender.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Send one message over a pooled transport. If a reused transport fails for a reason other than
+     * the message's recipients, e.g. the server dropped the idle session, the message is retried
+     * once on a new connection.
+     *
+     * @throws MailSendException if the message could not be sent; the transport is discarded
+     */
+    public void send(MimeMessage message) {
+        if (smtpSender == null) {
+            mailSender.send(message);
+            return;
+        }
+
+        try {
+            prepare(message);
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Failed to prepare message: " + e.getMessage(), e);
+        }
+
+        PooledTransport pooled = borrow(false);
+        while (true) {
+            boolean reused = pooled.messages > 0;
+            try {
+                pooled.transport.sendMessage(message, message.getAllRecipients());
+                pooled.messages++;
+                giveBack(pooled, true);
+                return;
+            } catch (MessagingException e) {
+                giveBack(pooled, false);
+                if (!reused || e instanceof SendFailedException) {
+                    throw new MailSendException("Failed to send message: " + e.getMessage(), e);
+                }
+                log.debug("Reused SMTP transport failed, retrying on a new connection: {}", e.getMessage());
+                pooled = borrow(true);
+            }
+        }
+    }
+
+    /**
+     * Take an idle transport, or connect a new one once fewer than {@code max-transports} are open.
+     *
+     * @param connectNew skip idle transports and open a new connection
+     */
+    private PooledTransport borrow(boolean connectNew) {
+        try {
+            transports.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP transport");
+        }
+
+        try {
+            long now = System.nanoTime();
+            while (!connectNew) {
+                PooledTransport pooled;
+                synchronized (idle) {
+                    pooled = idle.pollFirst();
+                }
+                if (pooled == null) {
+                    break;
+                }
+                if (now - pooled.lastUsed < idleTimeoutNanos) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return new PooledTransport(connect());
+        } catch (RuntimeException e) {
+            transports.release();
+            throw e;
+        }
+    }
+
+    private void giveBack(PooledTransport pooled, boolean healthy) {
+        try {
+            if (healthy && pooled.messages < maxMessagesPerTransport) {
+                pooled.lastUsed = System.nanoTime();
+                synchronized (idle) {
+                    idle.addFirst(pooled);
+                }
+            } else {
+                close(pooled);
+            }
+        } finally {
+            transports.release();
+        }
+    }
+
+    private Transport connect() {
+        String username = smtpSender.getUsername();
+        String password = smtpSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            if ("".equals(password)) {
+                password = null;
+            }
+        }
+        try {
+            Transport transport = smtpSender.getSession().getTransport(smtpSender.getProtocol());
+            transport.connect(smtpSender.getHost(), smtpSender.getPort(), username, password);
+            log.debug("Opened SMTP transport to {}:{}", smtpSender.getHost(), smtpSender.getPort());
+            return transport;
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Failed to connect to the mail server: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Same preparation as JavaMailSenderImpl applies before sending.
+     */
+    private static void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // Preserve an explicitly specified message id
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP transport: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        synchronized (idle) {
+            idle.forEach(SmtpTransportPool::close);
+            idle.clear();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.birthday.reminder.mail;
+
+/**
+ * Token bucket holding up to {@code capacity} tokens, refilled continuously at a fixed rate.
+ * Not thread-safe; callers synchronize.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double tokensPerSecond, int capacity, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    long tryConsume(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    double available(long now) {
+        refill(now);
+        return tokens;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -3,12 +3,15 @@ package com.birthday.reminder.repository;
 import com.birthday.reminder.entity.Birthday;
 import com.birthday.reminder.entity.Category;
 import com.birthday.reminder.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.time.DayOfWeek;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,19 +36,23 @@ public interface BirthdayRepository extends JpaRepository<Birthday, Long> {
      */
     List<Birthday> findByUserAndIsActiveTrueOrderByBirthDateAsc(User user);
 
+    /**
+     * Find all active birthdays for a user with their categories loaded.
+     */
+    @EntityGraph(attributePaths = "category")
+    List<Birthday> findWithCategoryByUserAndIsActiveTrue(User user);
+
     /**
      * Find a specific birthday by ID and user.
      */
     Optional<Birthday> findByIdAndUser(Long id, User user);
 
     /**
-     * Find birthdays by month and day (for notification matching).
-     * This query finds birthdays that match a specific month and day regardless of year.
+     * Find the id and birth date of the next active birthdays in ascending id order after
+     * {@code afterId}, for building BirthdayDayIndex one page at a time.
      */
-    @Query("SELECT b FROM Birthday b WHERE b.isActive = true " +
-           "AND FUNCTION('MONTH', b.birthDate) = :month " +
-           "AND FUNCTION('DAY', b.birthDate) = :day")
-    List<Birthday> findByMonthAndDay(@Param("month") int month, @Param("day") int day);
+    @Query("SELECT b.id, b.birthDate FROM Birthday b WHERE b.isActive = true AND b.id > :afterId ORDER BY b.id ASC")
+    List<Object[]> findActiveIdsAndBirthDates(@Param("afterId") long afterId, Pageable pageable);
 
     /**
      * Find birthdays for a user that match a specific month and day.
@@ -65,6 +72,89 @@ public interface BirthdayRepository extends JpaRepository<Birthday, Long> {
            "WHERE b.isActive = true AND ns.emailEnabled = true")
     List<Birthday> findAllActiveWithNotificationsEnabled();
 
+    /**
+     * Find active birthdays that fall on one of the given month/day keys (month * 100 + day)
+     * for the given users without a weekly digest in the given time zone whose notification minute is
+     * in the given range, with the user, settings and category fetched in the
+     * same query. Used by the scheduler to load only due reminders, one chunk of users at a time.
+     * The user ids bound the rows read through the user index; the month/day expression only filters
+     * the birthdays of those users.
+     */
+    @Query("SELECT b FROM Birthday b JOIN FETCH b.user u " +
+           "JOIN FETCH u.notificationSettings ns " +
+           "LEFT JOIN FETCH b.category " +
+           "WHERE b.isActive = true AND ns.emailEnabled = true " +
+           "AND ns.timeZone = :timeZone " +
+           "AND ns.notificationMinute BETWEEN :fromMinute AND :toMinute " +
+           "AND u.id IN :userIds AND ns.weeklyDigestDay IS NULL " +
+           "AND (FUNCTION('MONTH', b.birthDate) * 100 + FUNCTION('DAY', b.birthDate)) IN :monthDays")
+    List<Birthday> findDueReminderCandidates(@Param("timeZone") String timeZone,
+                                             @Param("fromMinute") int fromMinute,
+                                             @Param("toMinute") int toMinute,
+                                             @Param("userIds") Collection<Long> userIds,
+                                             @Param("monthDays") Collection<Integer> monthDays);
+
+    /**
+     * Find active birthdays that fall on one of the given month/day keys for the given users whose
+     * weekly digest is sent on the given day, with the user, settings and category fetched in the
+     * same query. Used to build the week-ahead digests of one chunk of users. As in
+     * {@link #findDueReminderCandidates}, the user ids bound the rows read.
+     */
+    @Query("SELECT b FROM Birthday b JOIN FETCH b.user u " +
+           "JOIN FETCH u.notificationSettings ns " +
+           "LEFT JOIN FETCH b.category " +
+           "WHERE b.isActive = true AND ns.emailEnabled = true " +
+           "AND u.id IN :userIds AND ns.weeklyDigestDay = :dayOfWeek " +
+           "AND (FUNCTION('MONTH', b.birthDate) * 100 + FUNCTION('DAY', b.birthDate)) IN :monthDays")
+    List<Birthday> findWeeklyDigestCandidates(@Param("userIds") Collection<Long> userIds,
+                                              @Param("dayOfWeek") DayOfWeek dayOfWeek,
+                                              @Param("monthDays") Collection<Integer> monthDays);
+
+    /**
+     * Find those of the given birthdays that are active, have a friend email and belong to users in
+     * one of the given time zones with greetings enabled, with the user, their settings and the
+     * category fetched in the same query. The ids come from BirthdayDayIndex.
+     */
+    @Query("SELECT b FROM Birthday b JOIN FETCH b.user u " +
+           "JOIN FETCH u.notificationSettings ns " +
+           "LEFT JOIN FETCH b.category " +
+           "WHERE b.id IN :ids AND b.isActive = true AND ns.greetingEnabled = true " +
+           "AND ns.timeZone IN :timeZones " +
+           "AND b.friendEmail IS NOT NULL AND b.friendEmail <> '' " +
+           "ORDER BY b.id ASC")
+    List<Birthday> findGreetingCandidates(@Param("ids") Collection<Long> ids,
+                                          @Param("timeZones") Collection<String> timeZones);
+
+    /**
+     * Count active birthdays of users with email notifications enabled and no digest, grouped by the
+     * settings that decide when their reminders are sent (time zone, notification minute, days mask)
+     * and by birthday month and day. Used to build the reminder forecast without loading birthdays.
+     */
+    @Query("SELECT ns.timeZone, ns.notificationMinute, ns.notificationDaysMask, " +
+           "FUNCTION('MONTH', b.birthDate), FUNCTION('DAY', b.birthDate), COUNT(b) " +
+           "FROM Birthday b JOIN b.user u JOIN u.notificationSettings ns " +
+           "WHERE b.isActive = true AND ns.emailEnabled = true " +
+           "AND (ns.digestEnabled IS NULL OR ns.digestEnabled = false) AND ns.weeklyDigestDay IS NULL " +
+           "GROUP BY ns.timeZone, ns.notificationMinute, ns.notificationDaysMask, " +
+           "FUNCTION('MONTH', b.birthDate), FUNCTION('DAY', b.birthDate)")
+    List<Object[]> countActiveBySettingsAndMonthDay();
+
+    /**
+     * Count active birthdays of users with email notifications enabled and a daily or weekly digest,
+     * per user and birthday month and day, ordered by user, with the settings that decide when their
+     * digests are sent (time zone, notification minute, days mask, weekly digest day). Used by the
+     * reminder forecast, which counts one email per digest rather than one per birthday.
+     */
+    @Query("SELECT u.id, ns.timeZone, ns.notificationMinute, ns.notificationDaysMask, ns.weeklyDigestDay, " +
+           "FUNCTION('MONTH', b.birthDate), FUNCTION('DAY', b.birthDate), COUNT(b) " +
+           "FROM Birthday b JOIN b.user u JOIN u.notificationSettings ns " +
+           "WHERE b.isActive = true AND ns.emailEnabled = true " +
+           "AND (ns.digestEnabled = true OR ns.weeklyDigestDay IS NOT NULL) " +
+           "GROUP BY u.id, ns.timeZone, ns.notificationMinute, ns.notificationDaysMask, ns.weeklyDigestDay, " +
+           "FUNCTION('MONTH', b.birthDate), FUNCTION('DAY', b.birthDate) " +
+           "ORDER BY u.id")
+    List<Object[]> countActiveOfDigestUsersByMonthDay();
+
     /**
      * Search birthdays by friend name.
      */
@@ -0,0 +1,49 @@
+package com.birthday.reminder.repository;
+
+import com.birthday.reminder.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for NotificationOutbox entity operations.
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Find entries in the given status whose next attempt is due, oldest first, with everything needed
+     * to render the reminder fetched in the same query.
+     */
+    @Query("SELECT o FROM NotificationOutbox o " +
+           "JOIN FETCH o.birthday b LEFT JOIN FETCH b.category " +
+           "JOIN FETCH o.user u JOIN FETCH u.notificationSettings " +
+           "WHERE o.status = :status " +
+           "AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.nextAttemptAt ASC")
+    List<NotificationOutbox> findDue(@Param("status") NotificationOutbox.Status status,
+                                     @Param("now") LocalDateTime now,
+                                     Pageable pageable);
+
+    /**
+     * Delete every entry of a birthday, so the birthday itself can be deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.birthday.id = :birthdayId")
+    int deleteByBirthdayId(@Param("birthdayId") Long birthdayId);
+
+    /**
+     * Delete entries in one of the given statuses created before the given time.
+     */
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status IN :statuses AND o.createdAt < :before")
+    int deleteByStatusInAndCreatedAtBefore(@Param("statuses") Collection<NotificationOutbox.Status> statuses,
+                                           @Param("before") LocalDateTime before);
+}
@@ -2,9 +2,14 @@ package com.birthday.reminder.repository;
 
 import com.birthday.reminder.entity.NotificationSettings;
 import com.birthday.reminder.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +27,88 @@ public interface NotificationSettingsRepository extends JpaRepository<Notificati
      * Check if settings exist for a user.
      */
     boolean existsByUser(User user);
+
+    /**
+     * Find the next user ids, in ascending order after {@code afterUserId}, of enabled settings in the
+     * given time zone whose notification minute falls in the given range, restricted to the users of
+     * one shard ({@code id mod shardCount = shard}). Used to walk a slot in chunks.
+     */
+    @Query("SELECT ns.user.id FROM NotificationSettings ns " +
+           "WHERE ns.emailEnabled = true AND ns.timeZone = :timeZone " +
+           "AND ns.notificationMinute BETWEEN :fromMinute AND :toMinute " +
+           "AND ns.user.id > :afterUserId " +
+           "AND MOD(ns.user.id, :shardCount) = :shard " +
+           "ORDER BY ns.user.id ASC")
+    List<Long> findEnabledUserIdsInSlot(@Param("timeZone") String timeZone,
+                                        @Param("fromMinute") int fromMinute,
+                                        @Param("toMinute") int toMinute,
+                                        @Param("afterUserId") long afterUserId,
+                                        @Param("shard") int shard,
+                                        @Param("shardCount") int shardCount,
+                                        Pageable pageable);
+
+    /**
+     * Find enabled settings in the given time zone whose notification minute falls in the given range,
+     * for the given users, with the user fetched.
+     */
+    @Query("SELECT ns FROM NotificationSettings ns JOIN FETCH ns.user u " +
+           "WHERE ns.emailEnabled = true AND ns.timeZone = :timeZone " +
+           "AND ns.notificationMinute BETWEEN :fromMinute AND :toMinute " +
+           "AND u.id IN :userIds")
+    List<NotificationSettings> findEnabledInSlot(@Param("timeZone") String timeZone,
+                                                 @Param("fromMinute") int fromMinute,
+                                                 @Param("toMinute") int toMinute,
+                                                 @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Count enabled settings in the given time zone whose notification minute falls in the given range.
+     */
+    @Query("SELECT COUNT(ns) FROM NotificationSettings ns " +
+           "WHERE ns.emailEnabled = true AND ns.timeZone = :timeZone " +
+           "AND ns.notificationMinute BETWEEN :fromMinute AND :toMinute")
+    long countEnabledInSlot(@Param("timeZone") String timeZone,
+                            @Param("fromMinute") int fromMinute,
+                            @Param("toMinute") int toMinute);
+
+    /**
+     * Count settings with email notifications enabled.
+     */
+    long countByEmailEnabledTrue();
+
+    /**
+     * Find the distinct time zones of enabled settings.
+     */
+    @Query("SELECT DISTINCT ns.timeZone FROM NotificationSettings ns WHERE ns.emailEnabled = true")
+    List<String> findEnabledTimeZones();
+
+    /**
+     * Find the distinct time zones of settings with birthday greetings enabled.
+     */
+    @Query("SELECT DISTINCT ns.timeZone FROM NotificationSettings ns WHERE ns.greetingEnabled = true")
+    List<String> findGreetingTimeZones();
+
+    /**
+     * Find the distinct (time zone, notification minute) pairs of enabled settings.
+     */
+    @Query("SELECT DISTINCT ns.timeZone, ns.notificationMinute FROM NotificationSettings ns " +
+           "WHERE ns.emailEnabled = true")
+    List<Object[]> findEnabledSlots();
+
+    /**
+     * Find settings whose derived columns have not been filled yet.
+     */
+    List<NotificationSettings> findByNotificationMinuteIsNullOrNotificationDaysMaskIsNullOrTimeZoneIsNull();
+
+    /**
+     * Bitwise OR of the notification day masks of all enabled settings in the given slot, for the
+     * given users without a weekly digest, i.e. every lead day at least one of those users wants a reminder for. Null when none match.
+     */
+    @Query("SELECT FUNCTION('BIT_OR_AGG', ns.notificationDaysMask) FROM NotificationSettings ns " +
+           "WHERE ns.emailEnabled = true AND ns.timeZone = :timeZone " +
+           "AND ns.notificationMinute BETWEEN :fromMinute AND :toMinute " +
+           "AND ns.user.id IN :userIds AND ns.weeklyDigestDay IS NULL")
+    Integer combinedDaysMaskInSlot(@Param("timeZone") String timeZone,
+                                   @Param("fromMinute") int fromMinute,
+                                   @Param("toMinute") int toMinute,
+                                   @Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,12 @@
+package com.birthday.reminder.repository;
+
+import com.birthday.reminder.entity.SchedulerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for SchedulerCheckpoint entity operations.
+ */
+@Repository
+public interface SchedulerCheckpointRepository extends JpaRepository<SchedulerCheckpoint, String> {
+}
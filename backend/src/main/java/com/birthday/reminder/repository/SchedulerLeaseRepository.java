@@ -0,0 +1,39 @@
+package com.birthday.reminder.repository;
+
+import com.birthday.reminder.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Repository for SchedulerLease entity operations.
+ */
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Take or renew a lease if it is held by the given owner or has expired.
+     * Returns the number of rows updated (0 if another node holds the lease).
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int takeOrRenew(@Param("name") String name,
+                    @Param("owner") String owner,
+                    @Param("now") Instant now,
+                    @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Insert a new lease. Unlike save, this never updates a row another node inserted meanwhile:
+     * if the lease exists, the insert fails with a primary key violation.
+     */
+    @Modifying
+    @Query("INSERT INTO SchedulerLease (name, owner, expiresAt) VALUES (:name, :owner, :expiresAt)")
+    int insert(@Param("name") String name,
+               @Param("owner") String owner,
+               @Param("expiresAt") Instant expiresAt);
+}
@@ -0,0 +1,34 @@
+package com.birthday.reminder.repository;
+
+import com.birthday.reminder.entity.SchedulerRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+import java.util.List;
+
+/**
+ * Repository for SchedulerRun entity operations.
+ */
+@Repository
+public interface SchedulerRunRepository extends JpaRepository<SchedulerRun, Long> {
+
+    /**
+     * Find the most recent runs, newest first.
+     */
+    List<SchedulerRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    /**
+     * Delete the runs started before the given instant.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SchedulerRun r WHERE r.startedAt < :before")
+    int deleteByStartedAtBefore(@Param("before") Instant before);
+}
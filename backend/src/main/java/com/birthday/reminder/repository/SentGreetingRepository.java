@@ -0,0 +1,33 @@
+package com.birthday.reminder.repository;
+
+import com.birthday.reminder.entity.SentGreeting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for SentGreeting ledger operations.
+ */
+@Repository
+public interface SentGreetingRepository extends JpaRepository<SentGreeting, Long> {
+
+    /**
+     * Find which of the given birthdays already had their greeting sent for the given year.
+     */
+    @Query("SELECT g.birthdayId FROM SentGreeting g " +
+           "WHERE g.birthdayId IN :birthdayIds AND g.birthdayYear = :year")
+    List<Long> findSentBirthdayIds(@Param("birthdayIds") Collection<Long> birthdayIds,
+                                   @Param("year") int year);
+
+    /**
+     * Delete the ledger entries of the given birthdays for the given year.
+     */
+    @Modifying
+    @Query("DELETE FROM SentGreeting g WHERE g.birthdayId IN :birthdayIds AND g.birthdayYear = :year")
+    int deleteByBirthdayIds(@Param("birthdayIds") Collection<Long> birthdayIds, @Param("year") int year);
+}
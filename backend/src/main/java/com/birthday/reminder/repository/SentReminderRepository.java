@@ -0,0 +1,36 @@
+package com.birthday.reminder.repository;
+
+import com.birthday.reminder.entity.SentReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository for SentReminder ledger operations.
+ */
+@Repository
+public interface SentReminderRepository extends JpaRepository<SentReminder, Long> {
+
+    /**
+     * Find ledger entries for the given birthdays and occurrence years.
+     */
+    @Query("SELECT r FROM SentReminder r " +
+           "WHERE r.birthdayId IN :birthdayIds AND r.birthdayYear IN :years")
+    List<SentReminder> findByBirthdayIdsAndYears(@Param("birthdayIds") Collection<Long> birthdayIds,
+                                                 @Param("years") Collection<Integer> years);
+
+    /**
+     * Delete the ledger entry of one reminder, if any.
+     */
+    @Modifying
+    @Query("DELETE FROM SentReminder r " +
+           "WHERE r.birthdayId = :birthdayId AND r.birthdayYear = :birthdayYear AND r.leadDay = :leadDay")
+    int deleteByKey(@Param("birthdayId") long birthdayId,
+                    @Param("birthdayYear") int birthdayYear,
+                    @Param("leadDay") int leadDay);
+}
@@ -2,28 +2,64 @@ package com.birthday.reminder.scheduler;
 
 import com.birthday.reminder.entity.Birthday;
 import com.birthday.reminder.entity.NotificationSettings;
+import com.birthday.reminder.entity.SchedulerCheckpoint;
 import com.birthday.reminder.entity.User;
+import com.birthday.reminder.mail.MailCircuitBreaker;
+import com.birthday.reminder.mail.MailPriority;
 import com.birthday.reminder.repository.BirthdayRepository;
 import com.birthday.reminder.repository.NotificationSettingsRepository;
-import com.birthday.reminder.repository.UserRepository;
+import com.birthday.reminder.repository.SchedulerCheckpointRepository;
+import com.birthday.reminder.repository.SchedulerRunRepository;
 import com.birthday.reminder.service.EmailService;
+import com.birthday.reminder.service.NotificationOutboxService;
+import com.birthday.reminder.service.NotificationSettingsService;
+import com.birthday.reminder.service.SchedulerLeaseService;
+import com.birthday.reminder.service.SentReminderLedger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Scheduled task for sending birthday reminder notifications.
  * Supports multiple notification days (e.g., 7 days, 3 days, 1 day before).
- * Runs hourly and checks each user's preferred notification time.
+ * Runs hourly and checks each user's preferred notification time in their own time zone.
+ * <p>
+ * In the default {@code due-query} mode only the reminders due in the current hour are loaded
+ * with a single query per time zone; {@code per-user} mode loads the birthdays of each user in
+ * the current hour. Reminders are either sent directly or, in {@code outbox} delivery, written to
+ * the notification outbox for NotificationOutboxDrainer to deliver with retries.
+ * <p>
+ * With the {@code wheel} trigger the hourly cron is idle and NotificationSlotWheel fires each
+ * slot at its exact minute instead. Either trigger runs on the scheduling pool
+ * ({@code spring.task.scheduling.pool.size}), whose other threads keep the outbox drainer and the
+ * birthday index refresh going while a long run sends.
+ * <p>
+ * Users are split into {@code app.scheduler.shards} shards by id. Each shard is processed only by
+ * the node holding its lease, so several instances can share the work without sending duplicates;
+ * if a node stops renewing its leases, another node takes its shards over once they expire. A lease
+ * is renewed before each chunk and in the background while the chunk is sent.
+ * <p>
+ * Each shard keeps a checkpoint of the time up to which its slots have been processed. Slots
+ * missed while the application was down or lagging are replayed on startup or with the next run.
  */
 @Component
 @ConditionalOnProperty(name = "app.scheduler.enabled", havingValue = "true", matchIfMissing = true)
@@ -31,110 +67,379 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Slf4j
 public class BirthdayNotificationScheduler {
 
-    private final UserRepository userRepository;
+    static final String MODE_DUE_QUERY = "due-query";
+    static final String MODE_PER_USER = "per-user";
+    static final String DELIVERY_DIRECT = "direct";
+    static final String DELIVERY_OUTBOX = "outbox";
+    static final String TRIGGER_CRON = "cron";
+    static final String TRIGGER_WHEEL = "wheel";
+    static final String RUN_MANUAL = "manual";
+    static final String RUN_CATCH_UP = "catch-up";
+
     private final BirthdayRepository birthdayRepository;
     private final NotificationSettingsRepository settingsRepository;
     private final EmailService emailService;
+    private final DueReminderFinder dueReminderFinder;
+    private final ReminderDispatcher reminderDispatcher;
+    private final NotificationOutboxService outboxService;
+    private final SentReminderLedger sentReminderLedger;
+    private final PlatformTransactionManager transactionManager;
+    private final SchedulerLeaseService leaseService;
+    private final SchedulerCheckpointRepository checkpointRepository;
+    private final MailCircuitBreaker circuitBreaker;
+    private final SchedulerRunRepository runRepository;
+
+    @Value("${app.scheduler.mode:" + MODE_DUE_QUERY + "}")
+    private String mode;
+
+    @Value("${app.scheduler.delivery:" + DELIVERY_DIRECT + "}")
+    private String delivery;
+
+    @Value("${app.scheduler.trigger:" + TRIGGER_CRON + "}")
+    private String trigger;
+
+    @Value("${app.scheduler.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.scheduler.shards:1}")
+    private int shardCount;
+
+    @Value("${app.scheduler.lease-ttl:PT5M}")
+    private Duration leaseTtl;
+
+    @Value("${app.scheduler.max-catch-up:PT24H}")
+    private Duration maxCatchUp;
+
+    @Value("${app.scheduler.run-history-retention:P30D}")
+    private Duration runHistoryRetention;
 
     /**
      * Scheduled task that runs every hour to check and send birthday notifications.
-     * Only sends notifications to users whose preferred notification time matches the current hour.
+     * Only sends notifications to users whose preferred notification time falls in the current hour.
      */
     @Scheduled(cron = "${app.scheduler.cron}")
-    @Transactional(readOnly = true)
     public void sendBirthdayNotifications() {
-        LocalDateTime now = LocalDateTime.now();
-        int currentHour = now.getHour();
-        
-        log.info("Starting birthday notification check at {} (hour: {})", now, currentHour);
-        
-        AtomicInteger notificationsSent = new AtomicInteger(0);
-        AtomicInteger notificationsFailed = new AtomicInteger(0);
-        AtomicInteger usersSkipped = new AtomicInteger(0);
+        if (TRIGGER_WHEEL.equals(trigger)) {
+            // Slots are fired individually by NotificationSlotWheel
+            return;
+        }
+        runHourlyCheck(TRIGGER_CRON);
+    }
+
+    /**
+     * Replay the slots missed while no node was running, up to the point where the regular trigger
+     * takes over: the end of the current hour for the cron trigger, the current minute for the wheel.
+     * Runs after the settings backfill, so the slots of rows missing their derived columns are not
+     * passed over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(NotificationSettingsService.BACKFILL_ORDER + 1)
+    public void catchUpMissedSlots() {
+        Instant now = Instant.now();
+        Instant until = TRIGGER_WHEEL.equals(trigger)
+                ? now.truncatedTo(ChronoUnit.MINUTES).plus(1, ChronoUnit.MINUTES)
+                : now.truncatedTo(ChronoUnit.HOURS).plus(1, ChronoUnit.HOURS);
+        processWindow(RUN_CATCH_UP, until, until);
+    }
 
-        // Get all users
-        List<User> users = userRepository.findAll();
+    /**
+     * Process the slots covering the current hour in every time zone that has enabled users.
+     */
+    private void runHourlyCheck(String runTrigger) {
+        Instant hourStart = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        Instant hourEnd = hourStart.plus(1, ChronoUnit.HOURS);
         
-        for (User user : users) {
-            try {
-                processUserNotifications(user, currentHour, notificationsSent, notificationsFailed, usersSkipped);
-            } catch (Exception e) {
-                log.error("Error processing notifications for user {}: {}", user.getEmail(), e.getMessage());
+        log.info("Starting birthday notification check for hour starting {}", hourStart);
+
+        List<NotificationSlot> slots = slotsCovering(hourStart, hourEnd);
+        long usersInSlots = slots.stream()
+                .mapToLong(slot -> settingsRepository.countEnabledInSlot(slot.timeZone(), slot.fromMinute(), slot.toMinute()))
+                .sum();
+        long usersSkipped = settingsRepository.countByEmailEnabledTrue() - usersInSlots;
+
+        log.info("Checking {} slots with {} users. Users skipped (not their hour): {}",
+                slots.size(), usersInSlots, usersSkipped);
+        processWindow(runTrigger, hourStart, hourEnd);
+    }
+
+    /**
+     * Find and deliver the reminders of every user whose notification time falls in [from, to), for
+     * each user shard this node holds the lease of. If a shard's checkpoint is before {@code from},
+     * the missed slots since the checkpoint (at most {@code app.scheduler.max-catch-up}) are replayed
+     * in the same pass; the sent-reminder ledger keeps the replay from sending anything twice. An
+     * empty window with nothing to replay leaves the checkpoints untouched.
+     * Runs that processed at least one shard are recorded in the run history.
+     *
+     * @param runTrigger what started the run, recorded in the run history
+     */
+    public void processWindow(String runTrigger, Instant from, Instant to) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        RunStats stats = new RunStats(runTrigger);
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                String leaseName = shardLeaseName(shard);
+                if (!leaseService.tryAcquire(leaseName, leaseTtl)) {
+                    log.debug("Skipping shard {} of {}: lease held by another node", shard, shardCount);
+                    continue;
+                }
+
+                Instant start = replayStart(leaseName, from, to);
+                if (!start.isBefore(to)) {
+                    // Nothing to process or replay; checkpoints only move over windows actually processed
+                    continue;
+                }
+                if (stats.windowFrom == null || start.isBefore(stats.windowFrom)) {
+                    stats.windowFrom = start;
+                }
+                List<NotificationSlot> slots = slotsCovering(start, to);
+                stats.slots = Math.max(stats.slots, slots.size());
+                // Renewed in the background too, since a rate-limited chunk can outlast the lease
+                boolean completed;
+                try (SchedulerLeaseService.Renewal renewal = leaseService.keepRenewed(leaseName, leaseTtl)) {
+                    completed = processShard(shard, leaseName, slots, readOnlyTransaction, stats) && !renewal.isLost();
+                }
+                if (completed) {
+                    advanceCheckpoint(leaseName, to);
+                }
+                stats.shards++;
             }
+        } catch (RuntimeException e) {
+            stats.error = "Run failed: " + e;
+            throw e;
+        } finally {
+            recordRun(stats, to);
         }
 
-        log.info("Birthday notification check completed. Sent: {}, Failed: {}, Users skipped (not their hour): {}", 
-                notificationsSent.get(), notificationsFailed.get(), usersSkipped.get());
+        if (DELIVERY_OUTBOX.equals(delivery)) {
+            log.info("Birthday notification check completed for {} slots ({} of {} shards). Queued: {}",
+                    stats.slots, stats.shards, shardCount, stats.queued);
+        } else {
+            DispatchResult result = stats.result;
+            log.info("Birthday notification check completed for {} slots ({} of {} shards). Sent: {}, Failed: {}, " +
+                    "Send time: {} ms ({} reminders/s)", stats.slots, stats.shards, shardCount, result.sent(),
+                    result.failed(), result.wallTime().toMillis(), String.format("%.1f", result.throughputPerSecond()));
+        }
     }
 
     /**
-     * Process notifications for a single user.
-     * Checks if it's the user's preferred notification hour and sends notifications.
+     * Save a run in the run history and drop entries older than the retention period.
+     * Failing to record a run never fails the run itself.
      */
-    private void processUserNotifications(User user, int currentHour, AtomicInteger sent, AtomicInteger failed, AtomicInteger skipped) {
-        // Get user's notification settings
-        NotificationSettings settings = settingsRepository.findByUser(user).orElse(null);
-        
-        if (settings == null || !settings.getEmailEnabled()) {
-            log.debug("Notifications disabled for user: {}", user.getEmail());
+    private void recordRun(RunStats stats, Instant windowTo) {
+        if (stats.shards == 0 && stats.error == null) {
             return;
         }
+        try {
+            runRepository.save(stats.toRun(leaseService.getNodeId(), windowTo));
+            runRepository.deleteByStartedAtBefore(Instant.now().minus(runHistoryRetention));
+        } catch (Exception e) {
+            log.warn("Failed to record scheduler run: {}", e.getMessage());
+        }
+    }
 
-        // Check if current hour matches user's preferred notification time
-        int userPreferredHour = parseNotificationHour(settings.getNotificationTime());
-        if (currentHour != userPreferredHour) {
-            skipped.incrementAndGet();
-            log.debug("Skipping user {} - not their notification hour (current: {}, preferred: {})", 
-                    user.getEmail(), currentHour, userPreferredHour);
-            return;
+    /**
+     * The start of the window to process for a shard: its checkpoint if that is before {@code from},
+     * bounded by the maximum catch-up period.
+     */
+    private Instant replayStart(String checkpointName, Instant from, Instant to) {
+        Instant coveredUntil = checkpointRepository.findById(checkpointName)
+                .map(SchedulerCheckpoint::getCoveredUntil)
+                .orElse(null);
+        if (coveredUntil == null || !coveredUntil.isBefore(from)) {
+            return from;
         }
-        
-        log.info("Processing notifications for user {} at their preferred time: {}", 
-                user.getEmail(), settings.getNotificationTime());
 
-        // Get all active birthdays for this user
-        List<Birthday> birthdays = birthdayRepository.findByUserAndIsActiveTrueOrderByBirthDateAsc(user);
-        
-        LocalDate today = LocalDate.now();
-        List<Integer> notificationDays = settings.getNotificationDaysList();
-        
-        for (Birthday birthday : birthdays) {
-            long daysUntil = birthday.getDaysUntilBirthday();
-            
-            // Check if today matches any of the notification days
-            if (notificationDays.contains((int) daysUntil)) {
-                try {
-                    boolean success = emailService.sendBirthdayReminder(user, birthday, settings, (int) daysUntil);
-                    if (success) {
-                        sent.incrementAndGet();
-                        log.info("Notification sent for {}'s birthday ({} days) to {}", 
-                                birthday.getFriendName(), daysUntil, user.getEmail());
-                    } else {
-                        failed.incrementAndGet();
-                    }
-                } catch (Exception e) {
-                    failed.incrementAndGet();
-                    log.error("Failed to send notification for {}'s birthday to {}: {}", 
-                            birthday.getFriendName(), user.getEmail(), e.getMessage());
+        Instant earliest = to.minus(maxCatchUp);
+        Instant start = coveredUntil.isBefore(earliest) ? earliest : coveredUntil;
+        if (start.isBefore(coveredUntil)) {
+            log.warn("Slots from {} to {} are older than the catch-up limit and will not be replayed",
+                    coveredUntil, start);
+        }
+        if (TRIGGER_WHEEL.equals(trigger)) {
+            // The wheel only fires minutes in use, so a gap since the last fire is expected
+            log.debug("Processing {} from {} to {}", checkpointName, start, to);
+        } else {
+            log.info("Replaying missed slots for {} from {} to {}", checkpointName, start, from);
+        }
+        return start;
+    }
+
+    /**
+     * Move a checkpoint forward to the given instant; it never moves back.
+     */
+    private void advanceCheckpoint(String checkpointName, Instant coveredUntil) {
+        SchedulerCheckpoint checkpoint = checkpointRepository.findById(checkpointName)
+                .orElseGet(() -> new SchedulerCheckpoint(checkpointName, coveredUntil));
+        if (checkpoint.getCoveredUntil().isBefore(coveredUntil)) {
+            checkpoint.setCoveredUntil(coveredUntil);
+        }
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * The slots covering [from, to) in every time zone that has enabled users.
+     */
+    private List<NotificationSlot> slotsCovering(Instant from, Instant to) {
+        List<NotificationSlot> slots = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return slots;
+        }
+        for (String timeZone : settingsRepository.findEnabledTimeZones()) {
+            slots.addAll(NotificationSlot.covering(timeZone, from, to));
+        }
+        return slots;
+    }
+
+    /**
+     * Deliver the reminders of one shard's users in the given slots.
+     * Users are walked in keyset-paginated chunks ordered by id. Each chunk is read in its own short
+     * read-only transaction and is detached before any email is sent, so no connection is held
+     * during SMTP I/O and memory use does not grow with the number of users.
+     *
+     * @return false if the shard's lease was lost before all slots were processed
+     */
+    private boolean processShard(int shard, String leaseName, List<NotificationSlot> slots,
+                                 TransactionTemplate readOnlyTransaction, RunStats stats) {
+        for (NotificationSlot slot : slots) {
+            long afterUserId = 0;
+            List<Long> userIds;
+            do {
+                long queryStart = System.nanoTime();
+                userIds = settingsRepository.findEnabledUserIdsInSlot(slot.timeZone(), slot.fromMinute(),
+                        slot.toMinute(), afterUserId, shard, shardCount, PageRequest.of(0, chunkSize));
+                stats.queryNanos += System.nanoTime() - queryStart;
+                if (userIds.isEmpty()) {
+                    break;
                 }
+                // Renew the lease before each chunk; stop if another node has taken the shard over
+                if (!leaseService.tryAcquire(leaseName, leaseTtl)) {
+                    log.warn("Lost lease on shard {} of {}, stopping", shard, shardCount);
+                    return false;
+                }
+                List<Long> chunkUserIds = userIds;
+                stats.users += userIds.size();
+
+                // Skip reminders an earlier or overlapping run already delivered
+                queryStart = System.nanoTime();
+                List<DueReminder> dueReminders = readOnlyTransaction.execute(status -> {
+                    List<DueReminder> found = findChunkReminders(slot, chunkUserIds);
+                    List<DueReminder> unsent = sentReminderLedger.filterUnsent(found);
+                    stats.found += found.size();
+                    stats.skipped += found.size() - unsent.size();
+                    return unsent;
+                });
+                stats.queryNanos += System.nanoTime() - queryStart;
+
+                // Claim the reminders before sending, so an overlapping run cannot send them too
+                List<DueReminder> claimed = sentReminderLedger.claim(dueReminders);
+                stats.skipped += dueReminders.size() - claimed.size();
+                if (DELIVERY_OUTBOX.equals(delivery)) {
+                    // Delivery and retries are handled by NotificationOutboxDrainer
+                    stats.queued += enqueue(claimed);
+                } else {
+                    stats.result = stats.result.plus(deliver(claimed, stats));
+                }
+
+                afterUserId = userIds.get(userIds.size() - 1);
+            } while (userIds.size() == chunkSize);
+        }
+        return true;
+    }
+
+    /**
+     * Lease name of a shard. Includes the shard count so that changing it does not mix up old leases.
+     */
+    private String shardLeaseName(int shard) {
+        return "reminders:" + shardCount + ":" + shard;
+    }
+
+    /**
+     * Find the due reminders of the given users in a slot: week-ahead digests for users who chose
+     * one and whose digest day it is, and lead-day reminders for everyone else.
+     */
+    private List<DueReminder> findChunkReminders(NotificationSlot slot, List<Long> userIds) {
+        List<DueReminder> dueReminders = new ArrayList<>(dueReminderFinder.findWeeklyDigestReminders(slot, userIds));
+        if (!MODE_PER_USER.equals(mode)) {
+            dueReminders.addAll(dueReminderFinder.findDueReminders(slot, userIds));
+            return dueReminders;
+        }
+
+        List<NotificationSettings> dueSettings = settingsRepository.findEnabledInSlot(
+                slot.timeZone(), slot.fromMinute(), slot.toMinute(), userIds);
+
+        for (NotificationSettings settings : dueSettings) {
+            if (settings.getWeeklyDigestDay() != null) {
+                // Covered by the week-ahead digest
+                continue;
+            }
+            try {
+                collectUserReminders(settings, slot.localDate(), dueReminders);
+            } catch (Exception e) {
+                log.error("Error processing notifications for user {}: {}", settings.getUser().getEmail(), e.getMessage());
             }
         }
+        return dueReminders;
     }
-    
+
     /**
-     * Parse the notification time string (HH:mm) to get the hour.
-     * Returns 8 (8 AM) as default if parsing fails.
+     * Send claimed reminders directly. Reminders that failed while the mail circuit breaker is open
+     * are deferred to the outbox, which delivers them once the mail server is back; the claims of
+     * other failed reminders are released, so a later run can send them.
      */
-    private int parseNotificationHour(String notificationTime) {
-        if (notificationTime == null || notificationTime.isEmpty()) {
-            return 8; // Default to 8 AM
+    private DispatchResult deliver(List<DueReminder> claimed, RunStats stats) {
+        Queue<DueReminder> failed = new ConcurrentLinkedQueue<>();
+        DispatchResult result = reminderDispatcher.dispatch(claimed, (reminder, success) -> {
+            if (!success) {
+                failed.add(reminder);
+            }
+        }, stats);
+        if (failed.isEmpty()) {
+            return result;
+        }
+
+        List<DueReminder> unsent = List.copyOf(failed);
+        if (circuitBreaker.isOpen()) {
+            stats.deferred += enqueue(unsent);
+            log.warn("Mail circuit breaker is open; deferred {} reminders to the outbox", unsent.size());
+        } else {
+            sentReminderLedger.release(unsent);
         }
+        return result;
+    }
+
+    /**
+     * Write claimed reminders to the outbox, releasing their claims if that fails.
+     */
+    private int enqueue(List<DueReminder> claimed) {
         try {
-            LocalTime time = LocalTime.parse(notificationTime);
-            return time.getHour();
-        } catch (Exception e) {
-            log.warn("Failed to parse notification time '{}', defaulting to 8 AM", notificationTime);
-            return 8;
+            return outboxService.enqueue(claimed);
+        } catch (RuntimeException e) {
+            sentReminderLedger.release(claimed);
+            throw e;
+        }
+    }
+
+    /**
+     * Collect the due reminders of a single user whose notification time is in the current slot.
+     */
+    private void collectUserReminders(NotificationSettings settings, LocalDate today, List<DueReminder> dueReminders) {
+        User user = settings.getUser();
+        
+        log.info("Processing notifications for user {} at their preferred time: {} ({})", 
+                user.getEmail(), settings.getNotificationTime(), settings.getTimeZone());
+
+        // Get all active birthdays for this user
+        List<Birthday> birthdays = birthdayRepository.findWithCategoryByUserAndIsActiveTrue(user);
+        
+        for (Birthday birthday : birthdays) {
+            long daysUntil = birthday.getDaysUntilBirthday(today);
+            
+            // Check if today matches any of the notification days
+            if (settings.shouldNotifyOnDay((int) daysUntil)) {
+                dueReminders.add(DueReminder.of(user, birthday, settings, (int) daysUntil, today));
+            }
         }
     }
 
@@ -143,37 +448,39 @@ public class BirthdayNotificationScheduler {
      */
     public void triggerManualNotificationCheck() {
         log.info("Manual notification check triggered");
-        sendBirthdayNotifications();
+        runHourlyCheck(RUN_MANUAL);
     }
 
     /**
-     * Send a test notification to verify email configuration.
+     * Send a test notification to verify email configuration. Queued on the mail pipeline; the
+     * returned future tells whether the email was sent.
      */
-    public boolean sendTestNotification(User user) {
+    public CompletableFuture<Boolean> sendTestNotification(User user) {
         log.info("Sending test notification to user: {}", user.getEmail());
-        
-        try {
-            String subject = "🎂 Birthday Reminder - Test Notification";
-            String body = """
-                <html>
-                <body style="font-family: Arial, sans-serif; padding: 20px;">
-                    <h2>Test Notification</h2>
-                    <p>This is a test notification from your Birthday Reminder app.</p>
-                    <p>If you received this email, your notification settings are working correctly!</p>
-                    <hr>
-                    <p style="color: #666; font-size: 12px;">
-                        Birthday Reminder App
-                    </p>
-                </body>
-                </html>
-                """;
-            
-            emailService.sendHtmlEmail(user.getEmail(), subject, body);
-            log.info("Test notification sent successfully to {}", user.getEmail());
-            return true;
-        } catch (Exception e) {
-            log.error("Failed to send test notification to {}: {}", user.getEmail(), e.getMessage());
-            return false;
-        }
+
+        String subject = "🎂 Birthday Reminder - Test Notification";
+        String body = """
+            <html>
+            <body style="font-family: Arial, sans-serif; padding: 20px;">
+                <h2>Test Notification</h2>
+                <p>This is a test notification from your Birthday Reminder app.</p>
+                <p>If you received this email, your notification settings are working correctly!</p>
+                <hr>
+                <p style="color: #666; font-size: 12px;">
+                    Birthday Reminder App
+                </p>
+            </body>
+            </html>
+            """;
+
+        return emailService.sendHtmlEmailAsync(user.getEmail(), subject, () -> body, MailPriority.TODAY)
+                .thenApply(sent -> {
+                    log.info("Test notification sent successfully to {}", user.getEmail());
+                    return true;
+                })
+                .exceptionally(e -> {
+                    log.error("Failed to send test notification to {}: {}", user.getEmail(), e.getMessage());
+                    return false;
+                });
     }
 }
@@ -0,0 +1,26 @@
+package com.birthday.reminder.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Outcome of dispatching a batch of reminders: counts, wall time and throughput.
+ */
+public record DispatchResult(int sent, int failed, Duration wallTime) {
+
+    public static final DispatchResult EMPTY = new DispatchResult(0, 0, Duration.ZERO);
+
+    /**
+     * Combine the results of two dispatches, e.g. of consecutive chunks of a run.
+     */
+    public DispatchResult plus(DispatchResult other) {
+        return new DispatchResult(sent + other.sent, failed + other.failed, wallTime.plus(other.wallTime));
+    }
+
+    /**
+     * Reminders attempted per second of wall time.
+     */
+    public double throughputPerSecond() {
+        long millis = wallTime.toMillis();
+        return millis == 0 ? 0 : (sent + failed) * 1000.0 / millis;
+    }
+}
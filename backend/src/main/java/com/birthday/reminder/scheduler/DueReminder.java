@@ -0,0 +1,24 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.Birthday;
+import com.birthday.reminder.entity.NotificationSettings;
+import com.birthday.reminder.entity.User;
+
+import java.time.LocalDate;
+
+/**
+ * A reminder that is due in the current run: who to notify, about which birthday,
+ * with which settings, how many days ahead of the birthday it is, and the date
+ * (in the user's time zone) the birthday falls on.
+ */
+public record DueReminder(User user, Birthday birthday, NotificationSettings settings, int daysUntil,
+                          LocalDate birthdayDate) {
+
+    /**
+     * Create a reminder for a birthday {@code daysUntil} days after the user's local {@code today}.
+     */
+    public static DueReminder of(User user, Birthday birthday, NotificationSettings settings, int daysUntil,
+                                 LocalDate today) {
+        return new DueReminder(user, birthday, settings, daysUntil, today.plusDays(daysUntil));
+    }
+}
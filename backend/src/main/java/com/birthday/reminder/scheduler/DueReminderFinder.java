@@ -0,0 +1,124 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.Birthday;
+import com.birthday.reminder.entity.NotificationSettings;
+import com.birthday.reminder.repository.BirthdayRepository;
+import com.birthday.reminder.repository.NotificationSettingsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the reminders due in a scheduler run with a single set-based query,
+ * instead of loading every user and their birthdays one by one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DueReminderFinder {
+
+    /**
+     * Number of days, starting today, listed in a week-ahead digest.
+     */
+    public static final int WEEKLY_DIGEST_DAYS = 7;
+
+    private final BirthdayRepository birthdayRepository;
+    private final NotificationSettingsRepository settingsRepository;
+
+    /**
+     * Find all reminders due for the given users whose notification time falls in the given slot,
+     * relative to the slot's local date.
+     */
+    public List<DueReminder> findDueReminders(NotificationSlot slot, Collection<Long> userIds) {
+        // Only look at the lead days that at least one user in this chunk has configured
+        Integer combinedMask = settingsRepository.combinedDaysMaskInSlot(
+                slot.timeZone(), slot.fromMinute(), slot.toMinute(), userIds);
+        if (combinedMask == null || combinedMask == 0) {
+            return List.of();
+        }
+        LocalDate today = slot.localDate();
+        Set<Integer> monthDays = monthDayKeys(today, combinedMask);
+
+        List<Birthday> candidates = birthdayRepository.findDueReminderCandidates(
+                slot.timeZone(), slot.fromMinute(), slot.toMinute(), userIds, monthDays);
+
+        List<DueReminder> due = new ArrayList<>();
+        for (Birthday birthday : candidates) {
+            NotificationSettings settings = birthday.getUser().getNotificationSettings();
+            int daysUntil = (int) birthday.getDaysUntilBirthday(today);
+            if (settings.shouldNotifyOnDay(daysUntil)) {
+                due.add(DueReminder.of(birthday.getUser(), birthday, settings, daysUntil, today));
+            }
+        }
+
+        log.debug("Found {} due reminders out of {} candidates for {}", due.size(), candidates.size(), slot);
+        return due;
+    }
+
+    /**
+     * Find the week-ahead digest reminders of the given users whose weekly digest day is the slot's
+     * local day of the week: every active birthday in the next 7 days, with one query for the chunk.
+     * Days until each birthday are taken from its month/day key rather than computed per birthday.
+     */
+    public List<DueReminder> findWeeklyDigestReminders(NotificationSlot slot, Collection<Long> userIds) {
+        LocalDate today = slot.localDate();
+        Map<Integer, Integer> offsets = monthDayOffsets(today, (1 << WEEKLY_DIGEST_DAYS) - 1);
+
+        List<Birthday> candidates = birthdayRepository.findWeeklyDigestCandidates(
+                userIds, today.getDayOfWeek(), offsets.keySet());
+
+        List<DueReminder> due = new ArrayList<>(candidates.size());
+        for (Birthday birthday : candidates) {
+            int daysUntil = offsets.get(monthDayKey(birthday.getBirthDate()));
+            due.add(DueReminder.of(birthday.getUser(), birthday, birthday.getUser().getNotificationSettings(),
+                    daysUntil, today));
+        }
+
+        log.debug("Found {} week-ahead digest reminders for {}", due.size(), slot);
+        return due;
+    }
+
+    /**
+     * Month/day keys (month * 100 + day) of the dates that are n days after {@code from}, for every
+     * n set in the notification days bit mask. Dates follow the calendar, so they wrap into the next
+     * year naturally. In non-leap years Feb 28 also matches Feb 29 birthdays, which are celebrated
+     * on Feb 28 (see Birthday#getUpcomingBirthday).
+     */
+    public static Set<Integer> monthDayKeys(LocalDate from, int daysMask) {
+        return monthDayOffsets(from, daysMask).keySet();
+    }
+
+    /**
+     * Like {@link #monthDayKeys}, mapping each key to its number of days after {@code from}.
+     */
+    public static Map<Integer, Integer> monthDayOffsets(LocalDate from, int daysMask) {
+        Map<Integer, Integer> offsets = new LinkedHashMap<>();
+        for (int i = 0; i <= NotificationSettings.MAX_LEAD_DAYS; i++) {
+            if (!NotificationSettings.isDayInMask(daysMask, i)) {
+                continue;
+            }
+            LocalDate date = from.plusDays(i);
+            offsets.putIfAbsent(monthDayKey(date), i);
+            if (date.getMonth() == Month.FEBRUARY && date.getDayOfMonth() == 28 && !date.isLeapYear()) {
+                offsets.putIfAbsent(229, i);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Month/day key of a date, matching the expression used in the repository queries.
+     */
+    public static int monthDayKey(LocalDate date) {
+        return date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+}
@@ -0,0 +1,280 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.Birthday;
+import com.birthday.reminder.mail.MailCircuitBreaker;
+import com.birthday.reminder.mail.MailPriority;
+import com.birthday.reminder.repository.BirthdayRepository;
+import com.birthday.reminder.repository.NotificationSettingsRepository;
+import com.birthday.reminder.service.BirthdayDayIndex;
+import com.birthday.reminder.service.EmailService;
+import com.birthday.reminder.service.SchedulerLeaseService;
+import com.birthday.reminder.service.SentGreetingLedger;
+import com.birthday.reminder.service.WishService;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scheduled task that emails a birthday wish, picked by WishService, to each friend on their
+ * birthday, for users who opted in to greetings.
+ * <p>
+ * Every run covers the current local day of each time zone up to the current minute, so a greeting
+ * is sent by the first run at or after its greeting time. The birthdays of each local day are
+ * looked up in the BirthdayDayIndex. Greetings are claimed in the SentGreetingLedger before they
+ * are sent, so they are never sent twice. A greeting that failed because of the mail server, e.g.
+ * while the mail circuit breaker is open, is released and retried by later runs until the local day
+ * ends; one the server refused, e.g. for a bad friend address, is not retried.
+ * <p>
+ * Runs execute on their own thread, so a long run never holds up the other scheduled tasks.
+ * Greetings are sent in batches of {@code app.greetings.batch-size} with {@link EmailService#sendBatch}
+ * over the pooled SMTP connections, in the rate limiter's greeting lane, which is served after all
+ * reminders. Only the node holding the {@value #LEASE_NAME} lease sends greetings.
+ */
+@Component
+@ConditionalOnProperty(name = "app.greetings.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class GreetingScheduler {
+
+    static final String LEASE_NAME = "greetings";
+
+    /**
+     * Maximum number of birthday ids per IN clause.
+     */
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    /**
+     * Greetings sent, failed and given up in one run.
+     */
+    private static final class Counts {
+        int sent;
+        int failed;
+        int rejected;
+    }
+
+    /**
+     * Birthday ids of one batch by outcome.
+     */
+    private static final class Outcome {
+        final List<Long> sent = new ArrayList<>();
+        /** Failed because of the mail server; released to be retried. */
+        final List<Long> failed = new ArrayList<>();
+        /** Refused for the message itself; kept claimed so they are not retried. */
+        final List<Long> rejected = new ArrayList<>();
+    }
+
+    private final BirthdayRepository birthdayRepository;
+    private final NotificationSettingsRepository settingsRepository;
+    private final BirthdayDayIndex birthdayDayIndex;
+    private final WishService wishService;
+    private final EmailService emailService;
+    private final SentGreetingLedger sentGreetingLedger;
+    private final SchedulerLeaseService leaseService;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("greetings-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.greetings.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.scheduler.lease-ttl:PT5M}")
+    private Duration leaseTtl;
+
+    /**
+     * Start a run on the greetings thread, unless the previous run is still going.
+     */
+    @Scheduled(cron = "${app.greetings.cron:0 */15 * * * ?}")
+    public void sendGreetings() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Skipping greetings: previous run still in progress");
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    sendGreetingsUntil(Instant.now());
+                } catch (RuntimeException e) {
+                    log.error("Birthday greetings run failed: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Send the greetings due up to the given instant in every time zone with greetings enabled.
+     */
+    public void sendGreetingsUntil(Instant now) {
+        if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            log.debug("Skipping greetings: lease held by another node");
+            return;
+        }
+
+        // Time zones by their local date, with the current local minute of each
+        Map<LocalDate, Map<String, Integer>> zonesByDate = new TreeMap<>();
+        for (String timeZone : settingsRepository.findGreetingTimeZones()) {
+            ZonedDateTime localNow = now.atZone(ZoneId.of(timeZone));
+            zonesByDate.computeIfAbsent(localNow.toLocalDate(), date -> new HashMap<>())
+                    .put(timeZone, localNow.getHour() * 60 + localNow.getMinute());
+        }
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Counts counts = new Counts();
+        try (SchedulerLeaseService.Renewal renewal = leaseService.keepRenewed(LEASE_NAME, leaseTtl)) {
+            for (Map.Entry<LocalDate, Map<String, Integer>> zones : zonesByDate.entrySet()) {
+                sendDayGreetings(zones.getKey(), zones.getValue(), readOnlyTransaction, renewal, counts);
+            }
+        }
+        if (counts.sent > 0 || counts.failed > 0 || counts.rejected > 0) {
+            log.info("Birthday greetings sent: {}, failed: {}, rejected: {}", counts.sent, counts.failed, counts.rejected);
+        }
+    }
+
+    /**
+     * Send the unsent greetings of the birthdays falling on {@code today} to the users in the given
+     * time zones whose greeting minute is at or before the zone's current minute.
+     *
+     * @param untilMinutes current local minute of each time zone whose local date is {@code today}
+     * @param counts       incremented by the greetings sent, failed and rejected
+     */
+    private void sendDayGreetings(LocalDate today, Map<String, Integer> untilMinutes,
+                                  TransactionTemplate readOnlyTransaction, SchedulerLeaseService.Renewal renewal,
+                                  Counts counts) {
+        long[] ids = birthdayDayIndex.idsOn(today);
+        // The index of another node's changes may be stale until its next rebuild; check the date again
+        Set<Integer> monthDays = DueReminderFinder.monthDayKeys(today, 1);
+
+        List<Birthday> due = new ArrayList<>(batchSize);
+        for (int from = 0; from < ids.length; from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(Math.min(LOOKUP_CHUNK_SIZE, ids.length - from));
+            for (int i = from; i < Math.min(from + LOOKUP_CHUNK_SIZE, ids.length); i++) {
+                chunk.add(ids[i]);
+            }
+            List<Birthday> candidates = readOnlyTransaction.execute(status ->
+                    birthdayRepository.findGreetingCandidates(chunk, untilMinutes.keySet()));
+
+            for (Birthday birthday : candidates) {
+                int greetingMinute = birthday.getUser().getNotificationSettings().getGreetingMinute();
+                String timeZone = birthday.getUser().getNotificationSettings().getTimeZone();
+                LocalDate birthDate = birthday.getBirthDate();
+                if (greetingMinute <= untilMinutes.get(timeZone)
+                        && monthDays.contains(birthDate.getMonthValue() * 100 + birthDate.getDayOfMonth())) {
+                    due.add(birthday);
+                }
+                if (due.size() == batchSize) {
+                    if (renewal.isLost()) {
+                        log.warn("Lost greetings lease, stopping");
+                        return;
+                    }
+                    sendClaimed(due, today.getYear(), counts);
+                    due.clear();
+                }
+            }
+        }
+        if (!due.isEmpty() && !renewal.isLost()) {
+            sendClaimed(due, today.getYear(), counts);
+        }
+    }
+
+    /**
+     * Claim the greetings of one batch, send the claimed ones and release the claims of those that
+     * failed because of the mail server.
+     */
+    private void sendClaimed(List<Birthday> birthdays, int year, Counts counts) {
+        Outcome outcome = sendBatch(sentGreetingLedger.claim(birthdays, year));
+        sentGreetingLedger.release(outcome.failed, year);
+        if (!outcome.rejected.isEmpty()) {
+            log.warn("Giving up on {} greetings refused for their address or content: {}",
+                    outcome.rejected.size(), outcome.rejected);
+        }
+        counts.sent += outcome.sent.size();
+        counts.failed += outcome.failed.size();
+        counts.rejected += outcome.rejected.size();
+    }
+
+    /**
+     * Send one greeting per birthday as a single batch.
+     */
+    private Outcome sendBatch(List<Birthday> birthdays) {
+        Outcome outcome = new Outcome();
+        if (birthdays.isEmpty()) {
+            return outcome;
+        }
+
+        Map<MimeMessage, Long> birthdayIds = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(birthdays.size());
+        for (Birthday birthday : birthdays) {
+            try {
+                String wish = wishService.generateWishes(birthday, 1, null).get(0);
+                MimeMessage message = emailService.createBirthdayGreeting(birthday, wish);
+                birthdayIds.put(message, birthday.getId());
+                messages.add(message);
+            } catch (MessagingException e) {
+                log.error("Failed to prepare birthday greeting for birthday {}: {}", birthday.getId(), e.getMessage());
+                outcome.rejected.add(birthday.getId());
+            }
+        }
+
+        Map<Object, Exception> failed = Map.of();
+        try {
+            emailService.sendBatch(messages, MailPriority.GREETING);
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.forEach(message -> outcome.failed.add(birthdayIds.get(message)));
+                return outcome;
+            }
+            failed = e.getFailedMessages();
+        }
+
+        for (MimeMessage message : messages) {
+            Exception error = failed.get(message);
+            if (error == null) {
+                outcome.sent.add(birthdayIds.get(message));
+            } else if (error instanceof MailException mailError && !MailCircuitBreaker.isServerFailure(mailError)) {
+                outcome.rejected.add(birthdayIds.get(message));
+            } else {
+                outcome.failed.add(birthdayIds.get(message));
+            }
+        }
+        return outcome;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,119 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.NotificationOutbox;
+import com.birthday.reminder.mail.MailCircuitBreaker;
+import com.birthday.reminder.service.NotificationOutboxService;
+import com.birthday.reminder.service.SchedulerLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Delivers reminders from the notification outbox in batches.
+ * Entries are loaded in a short read transaction, sent outside of it, and their outcomes
+ * recorded afterwards; failures are retried later with exponential backoff.
+ * Only the node holding the drainer lease drains, so entries are not sent twice; the lease is renewed
+ * before each batch and in the background while a batch is sent.
+ * While the mail circuit breaker is open, draining pauses and entries that could not be sent are
+ * deferred without using up an attempt. Sent and dead entries are purged after
+ * {@code app.outbox.retention}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.scheduler.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationOutboxDrainer {
+
+    private static final String LEASE_NAME = "outbox-drainer";
+
+    private final NotificationOutboxService outboxService;
+    private final ReminderDispatcher reminderDispatcher;
+    private final SchedulerLeaseService leaseService;
+    private final MailCircuitBreaker circuitBreaker;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.scheduler.lease-ttl:PT5M}")
+    private Duration leaseTtl;
+
+    @Value("${app.outbox.retention:P30D}")
+    private Duration retention;
+
+    /**
+     * Drain every due outbox entry, one batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.drain-interval:30000}")
+    public void drain() {
+        int delivered = 0;
+        int failed = 0;
+
+        List<NotificationOutbox> batch;
+        try (SchedulerLeaseService.Renewal renewal = leaseService.keepRenewed(LEASE_NAME, leaseTtl)) {
+            do {
+                // Acquire or renew the lease before each batch
+                if (!leaseService.tryAcquire(LEASE_NAME, leaseTtl) || circuitBreaker.isOpen()) {
+                    break;
+                }
+                batch = outboxService.findDueBatch(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                Map<DueReminder, Long> entryIds = new IdentityHashMap<>();
+                for (NotificationOutbox entry : batch) {
+                    LocalDate birthdayDate = entry.getBirthdayDate() != null
+                            ? entry.getBirthdayDate()
+                            : entry.getCreatedAt().toLocalDate().plusDays(entry.getDaysUntil());
+                    DueReminder reminder = new DueReminder(entry.getUser(), entry.getBirthday(),
+                            entry.getUser().getNotificationSettings(), entry.getDaysUntil(), birthdayDate);
+                    entryIds.put(reminder, entry.getId());
+                }
+
+                Queue<Long> sentIds = new ConcurrentLinkedQueue<>();
+                Queue<Long> failedIds = new ConcurrentLinkedQueue<>();
+                DispatchResult result = reminderDispatcher.dispatch(List.copyOf(entryIds.keySet()),
+                        (reminder, success) -> (success ? sentIds : failedIds).add(entryIds.get(reminder)));
+
+                if (circuitBreaker.isOpen()) {
+                    // The mail server is down: retry once the circuit breaker lets a probe through
+                    LocalDateTime retryAt = LocalDateTime.ofInstant(circuitBreaker.getRetryAt(), ZoneId.systemDefault());
+                    outboxService.defer(failedIds, retryAt, "Deferred while the mail server was unavailable");
+                    outboxService.recordOutcomes(sentIds, List.of());
+                    delivered += result.sent();
+                    break;
+                }
+                outboxService.recordOutcomes(sentIds, failedIds);
+                delivered += result.sent();
+                failed += result.failed();
+            } while (batch.size() == batchSize && !renewal.isLost());
+        }
+
+        if (delivered > 0 || failed > 0) {
+            log.info("Notification outbox drained. Delivered: {}, Failed: {}", delivered, failed);
+        }
+    }
+
+    /**
+     * Drop sent and dead entries older than {@code app.outbox.retention}.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:PT1H}")
+    public void purge() {
+        if (leaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            outboxService.purgeFinished(LocalDateTime.now().minus(retention));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.birthday.reminder.scheduler;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of local notification minutes on one local date in one time zone.
+ * All users whose notification time falls in the range are due in the same scheduler pass.
+ */
+public record NotificationSlot(String timeZone, LocalDate localDate, int fromMinute, int toMinute) {
+
+    /**
+     * The slots covering the instants in [from, to) as seen on the wall clock of the given zone.
+     * The range is split at local midnight, so each slot lies within a single local date.
+     */
+    public static List<NotificationSlot> covering(String timeZone, Instant from, Instant to) {
+        ZoneId zone = ZoneId.of(timeZone);
+        ZonedDateTime start = from.atZone(zone);
+        ZonedDateTime end = to.atZone(zone);
+
+        List<NotificationSlot> slots = new ArrayList<>();
+        LocalDate date = start.toLocalDate();
+        int fromMinute = minuteOfDay(start);
+        while (!date.isAfter(end.toLocalDate())) {
+            int toMinute = date.equals(end.toLocalDate()) ? minuteOfDay(end) - 1 : 24 * 60 - 1;
+            if (toMinute >= fromMinute) {
+                slots.add(new NotificationSlot(timeZone, date, fromMinute, toMinute));
+            }
+            date = date.plusDays(1);
+            fromMinute = 0;
+        }
+        return slots;
+    }
+
+    private static int minuteOfDay(ZonedDateTime dateTime) {
+        return dateTime.getHour() * 60 + dateTime.getMinute();
+    }
+}
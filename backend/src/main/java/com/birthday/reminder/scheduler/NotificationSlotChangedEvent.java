@@ -0,0 +1,7 @@
+package com.birthday.reminder.scheduler;
+
+/**
+ * Published when a user's notification time or zone changes, so the slot wheel can schedule the new slot.
+ */
+public record NotificationSlotChangedEvent(String timeZone, int minuteOfDay) {
+}
@@ -0,0 +1,153 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.repository.NotificationSettingsRepository;
+import com.birthday.reminder.service.NotificationSettingsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Min-heap of the next fire instant of every (time zone, notification minute) slot in use.
+ * A single wake-up is armed for the earliest slot; when it fires, the due slots are processed
+ * and rescheduled for their next local day. Nothing runs between slots.
+ * <p>
+ * Enabled with {@code app.scheduler.trigger=wheel}.
+ */
+@Component
+@ConditionalOnExpression("${app.scheduler.enabled:true} and '${app.scheduler.trigger:cron}' == 'wheel'")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationSlotWheel {
+
+    private final NotificationSettingsRepository settingsRepository;
+    private final BirthdayNotificationScheduler scheduler;
+    private final TaskScheduler taskScheduler;
+
+    private record SlotKey(String timeZone, int minuteOfDay) {
+    }
+
+    private record Entry(Instant fireAt, SlotKey slot) {
+    }
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(Comparator.comparing(Entry::fireAt));
+    private final Set<SlotKey> scheduled = new HashSet<>();
+    private ScheduledFuture<?> wakeUp;
+    private Instant wakeUpAt;
+
+    /**
+     * Load every slot in use and arm the first wake-up, once the settings backfill has filled in the
+     * slot columns.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(NotificationSettingsService.BACKFILL_ORDER + 1)
+    public synchronized void start() {
+        Instant now = Instant.now();
+        for (Object[] row : settingsRepository.findEnabledSlots()) {
+            schedule(new SlotKey((String) row[0], (Integer) row[1]), now);
+        }
+        log.info("Notification slot wheel started with {} slots", heap.size());
+        rearm();
+    }
+
+    /**
+     * Add the slot of a user whose notification time or zone changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSlotChanged(NotificationSlotChangedEvent event) {
+        if (schedule(new SlotKey(event.timeZone(), event.minuteOfDay()), Instant.now())) {
+            rearm();
+        }
+    }
+
+    /**
+     * Process every slot whose fire instant has passed and reschedule it for the next day.
+     */
+    private void fire() {
+        Instant from = null;
+        Instant to = null;
+        synchronized (this) {
+            Instant now = Instant.now();
+            while (!heap.isEmpty() && !heap.peek().fireAt().isAfter(now)) {
+                Entry entry = heap.poll();
+                if (from == null) {
+                    from = entry.fireAt();
+                }
+                to = entry.fireAt().plus(1, ChronoUnit.MINUTES);
+                heap.add(new Entry(nextFireInstant(entry.slot(), entry.fireAt()), entry.slot()));
+            }
+        }
+
+        if (from != null) {
+            try {
+                scheduler.processWindow(BirthdayNotificationScheduler.TRIGGER_WHEEL, from, to);
+            } catch (Exception e) {
+                log.error("Error processing notification slots from {} to {}: {}", from, to, e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            wakeUp = null;
+            rearm();
+        }
+    }
+
+    private boolean schedule(SlotKey slot, Instant now) {
+        if (!scheduled.add(slot)) {
+            return false;
+        }
+        heap.add(new Entry(nextFireInstant(slot, now), slot));
+        return true;
+    }
+
+    /**
+     * Arm the wake-up for the earliest slot, replacing a later one if needed.
+     */
+    private void rearm() {
+        Entry head = heap.peek();
+        if (head == null) {
+            return;
+        }
+        if (wakeUp != null) {
+            if (!head.fireAt().isBefore(wakeUpAt)) {
+                return;
+            }
+            wakeUp.cancel(false);
+        }
+        wakeUpAt = head.fireAt();
+        wakeUp = taskScheduler.schedule(this::fire, wakeUpAt);
+    }
+
+    /**
+     * The first instant after {@code after} at which the slot's local time occurs.
+     * Local times skipped by a DST gap fire at the shifted time on the same day.
+     */
+    static Instant nextFireInstant(SlotKey slot, Instant after) {
+        ZoneId zone = ZoneId.of(slot.timeZone());
+        LocalTime time = LocalTime.ofSecondOfDay(slot.minuteOfDay() * 60L);
+        LocalDate date = after.atZone(zone).toLocalDate();
+        Instant candidate = ZonedDateTime.of(date, time, zone).toInstant();
+        while (!candidate.isAfter(after)) {
+            date = date.plusDays(1);
+            candidate = ZonedDateTime.of(date, time, zone).toInstant();
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,250 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.mail.SendTimings;
+import com.birthday.reminder.service.EmailService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends due reminders, either one after another ({@code serial}), fanned out over a
+ * thread pool ({@code parallel}) with a semaphore capping the number of concurrent SMTP sessions,
+ * or through the MailPipeline ({@code pipeline}), which renders the next emails while earlier
+ * ones are being sent. In pipeline mode the pipeline's send workers bound the concurrent SMTP
+ * sessions and its queue bounds the emails in flight.
+ * <p>
+ * Reminders of users with digest mode enabled are combined into one email per user. Emails are
+ * submitted soonest birthday first; EmailService paces the actual sends.
+ * <p>
+ * Reminders must be fully loaded before dispatch, since parallel sends run outside the
+ * caller's persistence context.
+ */
+@Component
+@Slf4j
+public class ReminderDispatcher {
+
+    static final String MODE_SERIAL = "serial";
+    static final String MODE_PARALLEL = "parallel";
+    static final String MODE_PIPELINE = "pipeline";
+
+    private final EmailService emailService;
+    private final String mode;
+    private final Semaphore smtpSessions;
+    private final ExecutorService executor;
+
+    public ReminderDispatcher(EmailService emailService,
+                              @Value("${app.scheduler.dispatch.mode:" + MODE_SERIAL + "}") String mode,
+                              @Value("${app.scheduler.dispatch.threads:16}") int threads,
+                              @Value("${app.scheduler.dispatch.max-smtp-sessions:4}") int maxSmtpSessions) {
+        this.emailService = emailService;
+        this.mode = mode;
+        this.smtpSessions = new Semaphore(maxSmtpSessions);
+        this.executor = MODE_PARALLEL.equals(mode)
+                ? Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("reminder-dispatch-"))
+                : null;
+    }
+
+    /**
+     * Send all reminders and wait until every send has completed.
+     */
+    public DispatchResult dispatch(List<DueReminder> reminders) {
+        return dispatch(reminders, (reminder, success) -> { });
+    }
+
+    /**
+     * Send all reminders and wait until every send has completed, reporting the outcome of each
+     * reminder to the given callback. In parallel and pipeline mode the callback is invoked from
+     * worker threads.
+     */
+    public DispatchResult dispatch(List<DueReminder> reminders, BiConsumer<DueReminder, Boolean> onOutcome) {
+        return dispatch(reminders, onOutcome, null);
+    }
+
+    /**
+     * Like {@link #dispatch(List, BiConsumer)}, also recording render and send times, errors and
+     * per-user latencies in the given run statistics, if any.
+     */
+    DispatchResult dispatch(List<DueReminder> reminders, BiConsumer<DueReminder, Boolean> onOutcome, RunStats stats) {
+        if (reminders.isEmpty()) {
+            return DispatchResult.EMPTY;
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger sent = new AtomicInteger(0);
+        AtomicInteger failed = new AtomicInteger(0);
+
+        List<List<DueReminder>> emails = groupIntoEmails(reminders);
+        if (MODE_PIPELINE.equals(mode)) {
+            List<CompletableFuture<Void>> sends = new ArrayList<>(emails.size());
+            for (List<DueReminder> email : emails) {
+                sends.add(sendAsync(email, sent, failed, onOutcome, stats));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
+        } else if (executor == null) {
+            for (List<DueReminder> email : emails) {
+                send(email, sent, failed, onOutcome, stats);
+            }
+        } else {
+            List<CompletableFuture<Void>> sends = new ArrayList<>(emails.size());
+            for (List<DueReminder> email : emails) {
+                sends.add(CompletableFuture.runAsync(() -> sendWithPermit(email, sent, failed, onOutcome, stats), executor));
+            }
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture<?>[0])).join();
+        }
+
+        DispatchResult result = new DispatchResult(sent.get(), failed.get(), Duration.ofNanos(System.nanoTime() - start));
+        log.debug("Dispatched {} reminders in {} emails ({} mode) in {} ms ({} reminders/s)", reminders.size(),
+                emails.size(), mode, result.wallTime().toMillis(), String.format("%.1f", result.throughputPerSecond()));
+        return result;
+    }
+
+    /**
+     * Split reminders into emails: one per reminder, or one digest per user for users with digest mode enabled.
+     * Emails are ordered by their most urgent reminder, so the closest birthdays are sent first.
+     */
+    static List<List<DueReminder>> groupIntoEmails(List<DueReminder> reminders) {
+        List<List<DueReminder>> emails = new ArrayList<>(reminders.size());
+        Map<Long, List<DueReminder>> digests = new LinkedHashMap<>();
+        for (DueReminder reminder : reminders) {
+            if (reminder.settings() != null && reminder.settings().isDigest()) {
+                digests.computeIfAbsent(reminder.user().getId(), id -> new ArrayList<>()).add(reminder);
+            } else {
+                emails.add(List.of(reminder));
+            }
+        }
+        emails.addAll(digests.values());
+        emails.sort(Comparator.comparingInt(email -> email.stream().mapToInt(DueReminder::daysUntil).min().orElse(0)));
+        return emails;
+    }
+
+    private void sendWithPermit(List<DueReminder> email, AtomicInteger sent, AtomicInteger failed,
+                                BiConsumer<DueReminder, Boolean> onOutcome, RunStats stats) {
+        try {
+            smtpSessions.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.addAndGet(email.size());
+            email.forEach(reminder -> onOutcome.accept(reminder, false));
+            return;
+        }
+        try {
+            send(email, sent, failed, onOutcome, stats);
+        } finally {
+            smtpSessions.release();
+        }
+    }
+
+    /**
+     * Send a single reminder, or a digest of several reminders to the same user, and record the outcome
+     * of each reminder.
+     */
+    private void send(List<DueReminder> email, AtomicInteger sent, AtomicInteger failed,
+                      BiConsumer<DueReminder, Boolean> onOutcome, RunStats stats) {
+        DueReminder first = email.get(0);
+        boolean success = false;
+        long start = System.nanoTime();
+        if (stats != null) {
+            SendTimings.bind(stats.sendTimings);
+        }
+        try {
+            success = email.size() == 1
+                    ? emailService.sendBirthdayReminder(first.user(), first.birthday(), first.settings(),
+                            first.daysUntil(), first.birthdayDate())
+                    : emailService.sendBirthdayDigest(first.user(), email);
+        } catch (Exception e) {
+            SendTimings.recordError(e);
+            log.error("Failed to send notification for {} birthdays to {}: {}",
+                    email.size(), first.user().getEmail(), e.getMessage());
+        } finally {
+            if (stats != null) {
+                SendTimings.unbind();
+                stats.recordUserLatency(first.user().getId(), System.nanoTime() - start);
+            }
+        }
+        complete(email, success, sent, failed, onOutcome);
+    }
+
+    /**
+     * Queue a single reminder or a digest on the MailPipeline and record the outcome of each reminder
+     * once it is sent. Waits while the pipeline queue is full, as its rejection policy decides.
+     *
+     * @return completes normally once the outcome is recorded, whether or not the email was sent
+     */
+    private CompletableFuture<Void> sendAsync(List<DueReminder> email, AtomicInteger sent, AtomicInteger failed,
+                                              BiConsumer<DueReminder, Boolean> onOutcome, RunStats stats) {
+        DueReminder first = email.get(0);
+        long start = System.nanoTime();
+        if (stats != null) {
+            SendTimings.bind(stats.sendTimings);
+        }
+        CompletableFuture<Void> send;
+        try {
+            send = email.size() == 1
+                    ? emailService.sendBirthdayReminderAsync(first.user(), first.birthday(), first.settings(),
+                            first.daysUntil(), first.birthdayDate())
+                    : emailService.sendBirthdayDigestAsync(first.user(), email);
+        } finally {
+            if (stats != null) {
+                SendTimings.unbind();
+            }
+        }
+        return send.handle((ignored, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                log.error("Failed to send notification for {} birthdays to {}: {}",
+                        email.size(), first.user().getEmail(), cause.getMessage());
+            }
+            if (stats != null) {
+                stats.recordUserLatency(first.user().getId(), System.nanoTime() - start);
+            }
+            complete(email, error == null, sent, failed, onOutcome);
+            return null;
+        });
+    }
+
+    /**
+     * Count and log a sent or failed email and report the outcome of each of its reminders.
+     */
+    private void complete(List<DueReminder> email, boolean success, AtomicInteger sent, AtomicInteger failed,
+                          BiConsumer<DueReminder, Boolean> onOutcome) {
+        DueReminder first = email.get(0);
+        if (success) {
+            sent.addAndGet(email.size());
+            if (email.size() == 1) {
+                log.info("Notification sent for {}'s birthday ({} days) to {}",
+                        first.birthday().getFriendName(), first.daysUntil(), first.user().getEmail());
+            } else {
+                log.info("Digest with {} birthdays sent to {}", email.size(), first.user().getEmail());
+            }
+        } else {
+            failed.addAndGet(email.size());
+        }
+        for (DueReminder reminder : email) {
+            onOutcome.accept(reminder, success);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
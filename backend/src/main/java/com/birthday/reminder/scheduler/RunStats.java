@@ -0,0 +1,94 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.SchedulerRun;
+import com.birthday.reminder.mail.SendTimings;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Counts and timings of one scheduler run, filled in as the run progresses.
+ * Dispatch workers write only to the thread-safe send timings and user latencies.
+ */
+class RunStats {
+
+    final String trigger;
+    final Instant startedAt = Instant.now();
+    final SendTimings sendTimings = new SendTimings();
+    final Map<Long, Long> userLatencyNanos = new ConcurrentHashMap<>();
+
+    DispatchResult result = DispatchResult.EMPTY;
+    Instant windowFrom;
+    int shards;
+    int slots;
+    int users;
+    int found;
+    int skipped;
+    int queued;
+    int deferred;
+    long queryNanos;
+    String error;
+
+    RunStats(String trigger) {
+        this.trigger = trigger;
+    }
+
+    /**
+     * Add the time spent sending one email to the total latency of its user.
+     */
+    void recordUserLatency(Long userId, long nanos) {
+        userLatencyNanos.merge(userId, nanos, Long::sum);
+    }
+
+    /**
+     * Build the run history entry.
+     */
+    SchedulerRun toRun(String nodeId, Instant windowTo) {
+        long[] latencies = userLatencyNanos.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        String errors = error != null
+                ? error
+                : sendTimings.getErrors().entrySet().stream()
+                        .map(entry -> entry.getKey() + "=" + entry.getValue())
+                        .collect(Collectors.joining(", "));
+
+        return SchedulerRun.builder()
+                .trigger(trigger)
+                .nodeId(nodeId)
+                .startedAt(startedAt)
+                .finishedAt(Instant.now())
+                .windowFrom(windowFrom)
+                .windowTo(windowTo)
+                .shards(shards)
+                .slots(slots)
+                .users(users)
+                .found(found)
+                .skipped(skipped)
+                .sent(result.sent())
+                .failed(result.failed())
+                .queued(queued)
+                .deferred(deferred)
+                .queryMs(TimeUnit.NANOSECONDS.toMillis(queryNanos))
+                .renderMs(TimeUnit.NANOSECONDS.toMillis(sendTimings.getRenderNanos()))
+                .sendMs(TimeUnit.NANOSECONDS.toMillis(sendTimings.getSendNanos()))
+                .userLatencyP50Ms(percentileMillis(latencies, 50))
+                .userLatencyP95Ms(percentileMillis(latencies, 95))
+                .userLatencyP99Ms(percentileMillis(latencies, 99))
+                .userLatencyMaxMs(percentileMillis(latencies, 100))
+                .errors(errors.isEmpty() ? null : errors.substring(0, Math.min(errors.length(), 2000)))
+                .build();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values, in milliseconds; null when there are none.
+     */
+    static Long percentileMillis(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, rank - 1)]);
+    }
+}
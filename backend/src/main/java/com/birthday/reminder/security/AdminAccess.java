@@ -0,0 +1,35 @@
+package com.birthday.reminder.security;
+
+import com.birthday.reminder.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which users may call the admin endpoints: those whose email is listed in {@code app.admin.emails}.
+ * Used from {@code @PreAuthorize("@adminAccess.isAdmin(authentication)")}.
+ */
+@Component("adminAccess")
+public class AdminAccess {
+
+    private final Set<String> adminEmails;
+
+    public AdminAccess(@Value("${app.admin.emails:}") List<String> adminEmails) {
+        this.adminEmails = adminEmails.stream()
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    public boolean isAdmin(Authentication authentication) {
+        return authentication != null
+                && authentication.getPrincipal() instanceof User user
+                && adminEmails.contains(user.getEmail().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,173 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.entity.BirthdayChangedEvent;
+import com.birthday.reminder.repository.BirthdayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-memory index from day of year to the ids of the active birthdays falling on it, so
+ * "who has a birthday on date D" is answered without scanning the birthdays table.
+ * <p>
+ * Days are numbered as in a leap year, so Feb 29 has its own bucket; in other years it is looked
+ * up together with Feb 28. Each bucket is a sorted id array that is replaced, never modified, on
+ * change, so lookups need no locking. The index is built at startup, kept current from the
+ * BirthdayChangedEvents published by BirthdayChangeListener once the change commits, and rebuilt every
+ * {@code app.birthday-index.refresh-interval} to pick up changes made by other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BirthdayDayIndex {
+
+    static final int DAYS = 366;
+
+    private static final long[] EMPTY = new long[0];
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+    private static final int FEB_28 = bucketOf(Month.FEBRUARY.getValue(), 28);
+    private static final int FEB_29 = bucketOf(Month.FEBRUARY.getValue(), 29);
+
+    private final BirthdayRepository birthdayRepository;
+
+    private final AtomicReferenceArray<long[]> buckets = new AtomicReferenceArray<>(DAYS);
+    private volatile boolean built;
+
+    /**
+     * Load the ids and dates of all active birthdays, one page at a time, and replace the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.birthday-index.refresh-interval:PT1H}",
+               initialDelayString = "${app.birthday-index.refresh-interval:PT1H}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long[][] fresh = new long[DAYS][];
+        int[] counts = new int[DAYS];
+        int total = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = birthdayRepository.findActiveIdsAndBirthDates(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                int day = bucketOf((LocalDate) row[1]);
+                if (fresh[day] == null) {
+                    fresh[day] = new long[64];
+                } else if (counts[day] == fresh[day].length) {
+                    fresh[day] = Arrays.copyOf(fresh[day], counts[day] * 2);
+                }
+                fresh[day][counts[day]++] = afterId;
+            }
+            total += page.size();
+        } while (page.size() == REBUILD_PAGE_SIZE);
+
+        // Ids arrive in ascending order, so every bucket is already sorted
+        for (int day = 0; day < DAYS; day++) {
+            buckets.set(day, counts[day] == 0 ? EMPTY : Arrays.copyOf(fresh[day], counts[day]));
+        }
+        built = true;
+        log.info("Birthday day index built with {} birthdays in {} ms", total,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Move a birthday to the bucket of its current date, or drop it, once the change is committed.
+     * The previous bucket is found by a binary search in each bucket rather than kept per id, which
+     * would cost a map entry for every indexed birthday.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBirthdayChanged(BirthdayChangedEvent event) {
+        if (!built) {
+            // The first lookup builds the index from the database, including this change
+            return;
+        }
+        int day = event.indexed() ? bucketOf(event.birthDate()) : -1;
+        for (int other = 0; other < DAYS; other++) {
+            long[] ids = buckets.get(other);
+            if (other != day && Arrays.binarySearch(ids, event.birthdayId()) >= 0) {
+                buckets.set(other, without(ids, event.birthdayId()));
+                break;
+            }
+        }
+        if (day >= 0) {
+            buckets.set(day, with(buckets.get(day), event.birthdayId()));
+        }
+    }
+
+    /**
+     * Ids of the active birthdays falling on the given date; Feb 29 birthdays fall on Feb 28 in
+     * non-leap years. The returned array is shared and must not be modified.
+     */
+    public long[] idsOn(LocalDate date) {
+        ensureBuilt();
+        int day = bucketOf(date);
+        if (day == FEB_28 && !date.isLeapYear()) {
+            return concat(buckets.get(FEB_28), buckets.get(FEB_29));
+        }
+        return buckets.get(day);
+    }
+
+    private void ensureBuilt() {
+        if (!built) {
+            rebuild();
+        }
+    }
+
+    static int bucketOf(LocalDate date) {
+        return bucketOf(date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    private static int bucketOf(int month, int day) {
+        return LocalDate.of(2000, month, day).getDayOfYear() - 1;
+    }
+
+    private static long[] with(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return ids;
+        }
+        int insertAt = -at - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertAt);
+        result[insertAt] = id;
+        System.arraycopy(ids, insertAt, result, insertAt + 1, ids.length - insertAt);
+        return result;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return EMPTY;
+        }
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, at);
+        System.arraycopy(ids, at + 1, result, at, ids.length - at - 1);
+        return result;
+    }
+
+    private static long[] concat(long[] first, long[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        if (first.length == 0) {
+            return second;
+        }
+        long[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
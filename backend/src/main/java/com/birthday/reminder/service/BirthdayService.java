@@ -9,6 +9,7 @@ import com.birthday.reminder.exception.BadRequestException;
 import com.birthday.reminder.exception.ResourceNotFoundException;
 import com.birthday.reminder.repository.BirthdayRepository;
 import com.birthday.reminder.repository.CategoryRepository;
+import com.birthday.reminder.repository.NotificationOutboxRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +34,13 @@ public class BirthdayService {
 
     private final BirthdayRepository birthdayRepository;
     private final CategoryRepository categoryRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final BirthdayDayIndex birthdayDayIndex;
+
+    /**
+     * Maximum number of birthday ids per IN clause.
+     */
+    private static final int ID_LOOKUP_CHUNK_SIZE = 1000;
 
     private static final List<DateTimeFormatter> DATE_FORMATTERS = List.of(
             DateTimeFormatter.ISO_LOCAL_DATE,
@@ -154,6 +162,8 @@ public class BirthdayService {
         Birthday birthday = birthdayRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new ResourceNotFoundException("Birthday", "id", id));
 
+        // Outbox entries reference the birthday; pending reminders for it are dropped with it
+        outboxRepository.deleteByBirthdayId(birthday.getId());
         birthdayRepository.delete(birthday);
         log.info("Birthday deleted successfully: {}", id);
     }
@@ -200,11 +210,21 @@ public class BirthdayService {
     }
 
     /**
-     * Find birthdays that match a specific date for notification.
+     * Find the active birthdays falling on a date, looked up in the BirthdayDayIndex.
+     * Feb 29 birthdays match Feb 28 in non-leap years.
      */
     @Transactional(readOnly = true)
     public List<Birthday> findBirthdaysForDate(LocalDate date) {
-        return birthdayRepository.findByMonthAndDay(date.getMonthValue(), date.getDayOfMonth());
+        long[] ids = birthdayDayIndex.idsOn(date);
+        List<Birthday> birthdays = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ID_LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(Math.min(ID_LOOKUP_CHUNK_SIZE, ids.length - from));
+            for (int i = from; i < Math.min(from + ID_LOOKUP_CHUNK_SIZE, ids.length); i++) {
+                chunk.add(ids[i]);
+            }
+            birthdays.addAll(birthdayRepository.findAllById(chunk));
+        }
+        return birthdays;
     }
 
     /**
@@ -0,0 +1,112 @@
+package com.birthday.reminder.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Claims and releases entries of a ledger table whose unique key decides between runs claiming the
+ * same entries at the same time. Shared by SentReminderLedger and SentGreetingLedger, which supply
+ * the key of an item and how its entries are looked up, inserted and deleted.
+ * <p>
+ * Every claim and release runs in its own transaction.
+ */
+@Slf4j
+final class ClaimLedger {
+
+    private final String items;
+    private final TransactionTemplate transaction;
+
+    /**
+     * @param items what is claimed, for log messages, e.g. "reminders"
+     */
+    ClaimLedger(String items, PlatformTransactionManager transactionManager) {
+        this.items = items;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Claim items by inserting their ledger entries, the batch in one transaction. If a concurrent
+     * run inserted one of the same entries first, the batch is rolled back and the items are
+     * claimed one at a time, so a duplicate only loses itself.
+     *
+     * @param keyOf       the ledger key of an item
+     * @param findClaimed the keys of the given items already in the ledger
+     * @param insert      inserts and flushes the entries of the given items
+     * @return the items claimed by this call, in order
+     */
+    <T, K> List<T> claim(List<T> batch, Function<T, K> keyOf,
+                         Function<List<T>, ? extends Collection<K>> findClaimed, Consumer<List<T>> insert) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+
+        try {
+            return transaction.execute(status -> insertUnclaimed(batch, keyOf, findClaimed, insert));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("A concurrent run claimed some of {} {}, claiming them one at a time", batch.size(), items);
+        }
+
+        List<T> claimed = new ArrayList<>(batch.size());
+        for (T item : batch) {
+            try {
+                claimed.addAll(transaction.execute(status ->
+                        insertUnclaimed(List.of(item), keyOf, findClaimed, insert)));
+            } catch (DataIntegrityViolationException e) {
+                // Claimed by a concurrent run
+            }
+        }
+        log.info("Skipped {} {} claimed by a concurrent run", batch.size() - claimed.size(), items);
+        return claimed;
+    }
+
+    /**
+     * Release claims by deleting their ledger entries. A claim that cannot be released is only
+     * logged; its item is then not sent again.
+     *
+     * @param delete deletes the entries of the given claims
+     */
+    <T> void release(Collection<T> claims, Consumer<Collection<T>> delete) {
+        if (claims.isEmpty()) {
+            return;
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> delete.accept(claims));
+        } catch (DataAccessException e) {
+            log.warn("Failed to release {} {} claims: {}", claims.size(), items, e.getMessage());
+        }
+    }
+
+    /**
+     * Insert the ledger entries of the items not in the ledger yet.
+     *
+     * @return the items whose entries were inserted
+     * @throws DataIntegrityViolationException if a concurrent run inserted one of the entries first
+     */
+    private static <T, K> List<T> insertUnclaimed(List<T> batch, Function<T, K> keyOf,
+                                                  Function<List<T>, ? extends Collection<K>> findClaimed,
+                                                  Consumer<List<T>> insert) {
+        Set<K> existing = new HashSet<>(findClaimed.apply(batch));
+        List<T> claimed = new ArrayList<>(batch.size());
+        for (T item : batch) {
+            if (existing.add(keyOf.apply(item))) {
+                claimed.add(item);
+            }
+        }
+        insert.accept(claimed);
+        return claimed;
+    }
+}
@@ -3,21 +3,42 @@ package com.birthday.reminder.service;
 import com.birthday.reminder.entity.Birthday;
 import com.birthday.reminder.entity.NotificationSettings;
 import com.birthday.reminder.entity.User;
+import com.birthday.reminder.mail.HtmlTemplate;
+import com.birthday.reminder.mail.MailCircuitBreaker;
+import com.birthday.reminder.mail.MailPipeline;
+import com.birthday.reminder.mail.MailPriority;
+import com.birthday.reminder.mail.MailRateLimiter;
+import com.birthday.reminder.mail.ReminderTemplateCache;
+import com.birthday.reminder.mail.SendTimings;
+import com.birthday.reminder.mail.SmtpTransportPool;
+import com.birthday.reminder.scheduler.DueReminder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Service for sending email notifications.
+ * Every message waits for a permit from the MailRateLimiter, in the priority lane of its reminder,
+ * and fails fast while the MailCircuitBreaker is open.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,6 +46,11 @@ import java.time.format.DateTimeFormatter;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MailRateLimiter rateLimiter;
+    private final MailCircuitBreaker circuitBreaker;
+    private final ReminderTemplateCache templateCache;
+    private final SmtpTransportPool transportPool;
+    private final MailPipeline pipeline;
 
     @Value("${spring.mail.username:}")
     private String fromEmail;
@@ -45,32 +71,89 @@ public class EmailService {
      * Send birthday reminder email with specific days until info.
      */
     public boolean sendBirthdayReminder(User user, Birthday birthday, NotificationSettings settings, int daysUntil) {
+        return sendBirthdayReminder(user, birthday, settings, daysUntil, LocalDate.now().plusDays(daysUntil));
+    }
+
+    /**
+     * Send birthday reminder email for the birthday falling on {@code birthdayDate}, {@code daysUntil} days ahead.
+     */
+    public boolean sendBirthdayReminder(User user, Birthday birthday, NotificationSettings settings, int daysUntil,
+                                        LocalDate birthdayDate) {
         log.debug("Sending birthday reminder to {} for friend {} ({} days)", 
                 user.getEmail(), birthday.getFriendName(), daysUntil);
 
         try {
             String subject = buildSubject(birthday, daysUntil);
-            String body = buildEmailBody(birthday, settings, daysUntil);
+            String body = SendTimings.timeRender(() -> buildEmailBody(birthday, settings, daysUntil, birthdayDate));
 
-            sendHtmlEmail(user.getEmail(), subject, body);
+            sendHtmlEmail(user.getEmail(), subject, body, MailPriority.forDaysUntil(daysUntil));
             log.info("Birthday reminder sent successfully to {} for {}", user.getEmail(), birthday.getFriendName());
             return true;
         } catch (Exception e) {
+            SendTimings.recordError(e);
             log.error("Failed to send birthday reminder to {}: {}", user.getEmail(), e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Send a single digest email listing several due reminders of the same user, one row per friend.
+     */
+    public boolean sendBirthdayDigest(User user, List<DueReminder> reminders) {
+        log.debug("Sending birthday digest with {} reminders to {}", reminders.size(), user.getEmail());
+
+        try {
+            String subject = "🎂 " + reminders.size() + " upcoming birthdays";
+            String body = SendTimings.timeRender(() -> buildDigestBody(reminders));
+
+            int soonest = reminders.stream().mapToInt(DueReminder::daysUntil).min().orElse(0);
+            sendHtmlEmail(user.getEmail(), subject, body, MailPriority.forDaysUntil(soonest));
+            log.info("Birthday digest sent successfully to {} with {} birthdays", user.getEmail(), reminders.size());
+            return true;
+        } catch (Exception e) {
+            SendTimings.recordError(e);
+            log.error("Failed to send birthday digest to {}: {}", user.getEmail(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Like {@link #sendBirthdayReminder(User, Birthday, NotificationSettings, int, LocalDate)}, but queued on
+     * the {@link MailPipeline}: the reminder is rendered on a render worker while others are being sent.
+     *
+     * @return completes once the reminder is sent; completes exceptionally if it could not be rendered
+     * or sent, or the pipeline queue is full
+     */
+    public CompletableFuture<Void> sendBirthdayReminderAsync(User user, Birthday birthday, NotificationSettings settings,
+                                                            int daysUntil, LocalDate birthdayDate) {
+        return submit(MailPriority.forDaysUntil(daysUntil), () -> createHtmlEmail(user.getEmail(),
+                buildSubject(birthday, daysUntil),
+                SendTimings.timeRender(() -> buildEmailBody(birthday, settings, daysUntil, birthdayDate))));
+    }
+
+    /**
+     * Like {@link #sendBirthdayDigest(User, List)}, but queued on the {@link MailPipeline}.
+     *
+     * @return completes once the digest is sent; completes exceptionally if it could not be rendered
+     * or sent, or the pipeline queue is full
+     */
+    public CompletableFuture<Void> sendBirthdayDigestAsync(User user, List<DueReminder> reminders) {
+        int soonest = reminders.stream().mapToInt(DueReminder::daysUntil).min().orElse(0);
+        return submit(MailPriority.forDaysUntil(soonest), () -> createHtmlEmail(user.getEmail(),
+                "🎂 " + reminders.size() + " upcoming birthdays",
+                SendTimings.timeRender(() -> buildDigestBody(reminders))));
+    }
+
     /**
      * Build email subject based on days until birthday.
      */
     private String buildSubject(Birthday birthday, int daysUntil) {
         if (daysUntil == 0) {
-            return String.format("🎂 TODAY: %s's birthday!", birthday.getFriendName());
+            return "🎂 TODAY: " + birthday.getFriendName() + "'s birthday!";
         } else if (daysUntil == 1) {
-            return String.format("🎂 TOMORROW: %s's birthday!", birthday.getFriendName());
+            return "🎂 TOMORROW: " + birthday.getFriendName() + "'s birthday!";
         } else {
-            return String.format("🎂 %d days until %s's birthday!", daysUntil, birthday.getFriendName());
+            return "🎂 " + daysUntil + " days until " + birthday.getFriendName() + "'s birthday!";
         }
     }
 
@@ -85,7 +168,7 @@ public class EmailService {
             message.setSubject(subject);
             message.setText(text);
             
-            mailSender.send(message);
+            send(MailPriority.LATER, () -> mailSender.send(message));
             log.info("Simple email sent successfully to {}", to);
         } catch (MailException e) {
             log.error("Failed to send simple email to {}: {}", to, e.getMessage());
@@ -94,9 +177,47 @@ public class EmailService {
     }
 
     /**
-     * Send an HTML email.
+     * Send an HTML email in the most urgent lane, e.g. a test notification the user is waiting for.
      */
     public void sendHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
+        sendHtmlEmail(to, subject, htmlContent, MailPriority.TODAY);
+    }
+
+    /**
+     * Send an HTML email once a permit is available in the given priority lane.
+     */
+    public void sendHtmlEmail(String to, String subject, String htmlContent, MailPriority priority)
+            throws MessagingException {
+        MimeMessage message = createHtmlEmail(to, subject, htmlContent);
+        send(priority, () -> transportPool.send(message));
+        log.debug("HTML email sent successfully to {}", to);
+    }
+
+    /**
+     * Queue an HTML email on the {@link MailPipeline} and return at once. The body is rendered on a
+     * pipeline worker, then sent like {@link #sendHtmlEmail(String, String, String, MailPriority)}.
+     *
+     * @return completes once the email is sent; completes exceptionally if it could not be rendered
+     * or sent, or the pipeline queue is full
+     */
+    public CompletableFuture<Void> sendHtmlEmailAsync(String to, String subject, Supplier<String> htmlContent,
+                                                      MailPriority priority) {
+        return submit(priority, () -> createHtmlEmail(to, subject, htmlContent.get()));
+    }
+
+    /**
+     * Queue a message on the pipeline, reporting render and send times to the caller's SendTimings.
+     */
+    private CompletableFuture<Void> submit(MailPriority priority, Callable<MimeMessage> render) {
+        return pipeline.submit(
+                SendTimings.propagate(render),
+                SendTimings.propagate((MimeMessage message) -> send(priority, () -> transportPool.send(message))));
+    }
+
+    /**
+     * Prepare an HTML email, e.g. for {@link #sendBatch}.
+     */
+    public MimeMessage createHtmlEmail(String to, String subject, String htmlContent) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
         
@@ -104,46 +225,179 @@ public class EmailService {
         helper.setTo(to);
         helper.setSubject(subject);
         helper.setText(htmlContent, true);
-        
-        mailSender.send(message);
-        log.debug("HTML email sent successfully to {}", to);
+        return message;
+    }
+
+    /**
+     * Prepare a birthday greeting to the friend's own address, e.g. for {@link #sendBatch}. It is sent
+     * from the application address on behalf of the user, whose address is set as Reply-To.
+     */
+    public MimeMessage createBirthdayGreeting(Birthday birthday, String wish) throws MessagingException {
+        User user = birthday.getUser();
+        String firstName = birthday.getFriendName().split(" ")[0];
+        MimeMessage message = createHtmlEmail(birthday.getFriendEmail(), "🎂 Happy birthday, " + firstName + "!",
+                GREETING_LAYOUT.render(wish, user.getName(), appName));
+        message.setReplyTo(new InternetAddress[]{new InternetAddress(user.getEmail())});
+        return message;
+    }
+
+    /**
+     * Send prepared messages one after another over the pooled SMTP connections, so the batch pays
+     * the connection handshake once per transport rather than once per message. Every message
+     * still waits for a permit and goes through the circuit breaker; once the circuit opens, the
+     * rest of the batch fails fast.
+     *
+     * @throws MailSendException listing the messages that could not be sent, if any
+     */
+    public void sendBatch(List<MimeMessage> messages, MailPriority priority) {
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        for (MimeMessage message : messages) {
+            try {
+                send(priority, () -> transportPool.send(message));
+            } catch (MailException e) {
+                failed.put(message, e);
+            }
+        }
+        if (!failed.isEmpty()) {
+            log.warn("Failed to send {} of {} emails in batch", failed.size(), messages.size());
+            throw new MailSendException(failed);
+        }
+        log.debug("Batch of {} emails sent successfully", messages.size());
+    }
+
+    /**
+     * Hand a prepared message to the mail server: fail fast while the circuit breaker is open,
+     * wait for a rate limiter permit, and report the outcome to the circuit breaker. Failures of the
+     * message alone, such as rejected recipients, are not counted against the server.
+     */
+    private void send(MailPriority priority, Runnable send) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new MailSendException("Mail server unavailable: circuit breaker is open");
+        }
+        if (!acquirePermit(priority)) {
+            circuitBreaker.release();
+            throw new MailSendException("Timed out waiting for a mail send permit");
+        }
+        try {
+            SendTimings.timeSend(send);
+        } catch (MailException e) {
+            if (MailCircuitBreaker.isServerFailure(e)) {
+                circuitBreaker.recordFailure();
+            } else {
+                // The server is up; only this message was refused
+                circuitBreaker.release();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.release();
+            throw e;
+        }
+        circuitBreaker.recordSuccess();
+    }
+
+    /**
+     * Wait for a send permit from the rate limiter.
+     *
+     * @return false if none became available in time
+     */
+    private boolean acquirePermit(MailPriority priority) {
+        try {
+            return rateLimiter.acquire(priority);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     /**
      * Build the email body using the user's template or default template.
      */
-    private String buildEmailBody(Birthday birthday, NotificationSettings settings, int daysUntil) {
-        String template = settings.getEmailTemplate();
-        
-        // Replace placeholders in the template
-        String body = template
-                .replace("{friendName}", birthday.getFriendName())
-                .replace("{birthDate}", birthday.getUpcomingBirthday().format(DATE_FORMATTER))
-                .replace("{age}", String.valueOf(birthday.calculateAge() + 1))
-                .replace("{daysUntil}", String.valueOf(daysUntil));
+    private String buildEmailBody(Birthday birthday, NotificationSettings settings, int daysUntil,
+                                  LocalDate birthdayDate) {
+        // The template itself may contain markup; the friend name is escaped
+        String body = templateCache.get(settings).render(
+                birthday.getFriendName(),
+                birthdayDate.format(DATE_FORMATTER),
+                ageOn(birthday, birthdayDate),
+                daysUntil);
 
         // Wrap in HTML template
-        return buildHtmlTemplate(birthday.getFriendName(), body, birthday, daysUntil);
+        return buildHtmlTemplate(birthday.getFriendName(), body, birthday, daysUntil, birthdayDate);
+    }
+
+    /**
+     * Age the friend turns on the birthday falling on the given date.
+     */
+    private static int ageOn(Birthday birthday, LocalDate birthdayDate) {
+        return birthdayDate.getYear() - birthday.getBirthDate().getYear();
+    }
+
+    /**
+     * Build the digest email: one row per friend, soonest birthday first.
+     */
+    private String buildDigestBody(List<DueReminder> reminders) {
+        StringBuilder rows = new StringBuilder(reminders.size() * 700);
+        reminders.stream()
+                .sorted(Comparator.comparingInt(DueReminder::daysUntil))
+                .forEach(reminder -> appendDigestRow(rows, reminder));
+
+        return DIGEST_LAYOUT.render(rows, appName);
+    }
+
+    /**
+     * Append one friend's row of a digest email.
+     */
+    private void appendDigestRow(StringBuilder rows, DueReminder reminder) {
+        Birthday birthday = reminder.birthday();
+        int daysUntil = reminder.daysUntil();
+        String urgencyColor = daysUntil <= 1 ? "#ef4444" : daysUntil <= 3 ? "#f59e0b" : "#3b82f6";
+        String when = daysUntil == 0 ? "Today!" : daysUntil == 1 ? "Tomorrow" : daysUntil + " days";
+        String category = birthday.getCategory() != null
+                ? DIGEST_CATEGORY.render(birthday.getCategory().getColor(), birthday.getCategory().getName())
+                : null;
+
+        DIGEST_ROW.renderTo(rows,
+            birthday.getFriendName(),
+            category,
+            reminder.birthdayDate().format(DATE_FORMATTER),
+            Integer.toString(ageOn(birthday, reminder.birthdayDate())),
+            urgencyColor,
+            when
+        );
     }
 
     /**
      * Build a beautiful HTML email template.
      */
-    private String buildHtmlTemplate(String friendName, String mainMessage, Birthday birthday, int daysUntil) {
+    private String buildHtmlTemplate(String friendName, String mainMessage, Birthday birthday, int daysUntil,
+                                     LocalDate birthdayDate) {
         String urgencyColor = daysUntil <= 1 ? "#ef4444" : daysUntil <= 3 ? "#f59e0b" : "#3b82f6";
         String urgencyText = daysUntil == 0 ? "TODAY!" : daysUntil == 1 ? "TOMORROW!" : daysUntil + " days away";
         
-        String categoryBadge = "";
+        String categoryBadge = null;
         if (birthday.getCategory() != null) {
-            categoryBadge = String.format(
-                "<span style=\"display: inline-block; padding: 4px 12px; background-color: %s20; color: %s; border-radius: 20px; font-size: 12px; margin-left: 10px;\">%s</span>",
-                birthday.getCategory().getColor(),
-                birthday.getCategory().getColor(),
-                birthday.getCategory().getName()
-            );
+            categoryBadge = CATEGORY_BADGE.render(birthday.getCategory().getColor(), birthday.getCategory().getName());
         }
 
-        return String.format("""
+        return REMINDER_LAYOUT.render(
+            urgencyColor,
+            urgencyText,
+            friendName,
+            categoryBadge,
+            mainMessage,
+            birthdayDate.format(DATE_FORMATTER),
+            Integer.toString(ageOn(birthday, birthdayDate)),
+            daysUntil == 0 ? "Today!" : daysUntil == 1 ? "Tomorrow" : daysUntil + " days",
+            birthday.getNotes() != null && !birthday.getNotes().isEmpty()
+                ? NOTE.render(birthday.getNotes())
+                : null,
+            appName
+        );
+    }
+
+    // Layouts, parsed once. {{name}} slots are HTML-escaped, {{&name}} slots take markup.
+
+    private static final HtmlTemplate REMINDER_LAYOUT = HtmlTemplate.compile("""
             <!DOCTYPE html>
             <html>
             <head>
@@ -151,19 +405,19 @@ public class EmailService {
                 <meta name="viewport" content="width=device-width, initial-scale=1.0">
             </head>
             <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f4f4f4;">
-                <table role="presentation" style="width: 100%%; border-collapse: collapse;">
+                <table role="presentation" style="width: 100%; border-collapse: collapse;">
                     <tr>
                         <td align="center" style="padding: 40px 0;">
                             <table role="presentation" style="width: 600px; border-collapse: collapse; background-color: #ffffff; border-radius: 12px; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);">
                                 <!-- Urgency Banner -->
                                 <tr>
-                                    <td style="padding: 12px 40px; background-color: %s; text-align: center; border-radius: 12px 12px 0 0;">
-                                        <span style="color: white; font-weight: bold; font-size: 14px;">⏰ %s</span>
+                                    <td style="padding: 12px 40px; background-color: {{urgencyColor}}; text-align: center; border-radius: 12px 12px 0 0;">
+                                        <span style="color: white; font-weight: bold; font-size: 14px;">⏰ {{urgencyText}}</span>
                                     </td>
                                 </tr>
                                 <!-- Header -->
                                 <tr>
-                                    <td style="padding: 30px 40px 20px; text-align: center; background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%);">
+                                    <td style="padding: 30px 40px 20px; text-align: center; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);">
                                         <h1 style="color: #ffffff; margin: 0; font-size: 28px;">🎂 Birthday Reminder</h1>
                                     </td>
                                 </tr>
@@ -171,26 +425,26 @@ public class EmailService {
                                 <tr>
                                     <td style="padding: 40px;">
                                         <h2 style="color: #333; margin: 0 0 20px; font-size: 24px;">
-                                            %s's Birthday!%s
+                                            {{friendName}}'s Birthday!{{&categoryBadge}}
                                         </h2>
                                         <p style="color: #555; font-size: 16px; line-height: 1.6; margin: 0 0 20px;">
-                                            %s
+                                            {{&message}}
                                         </p>
                                         <div style="background-color: #f8f9fa; border-radius: 8px; padding: 20px; margin: 20px 0;">
                                             <p style="margin: 0; color: #666;">
-                                                <strong>📅 Date:</strong> %s<br>
-                                                <strong>🎈 Turning:</strong> %d years old<br>
-                                                <strong>⏰ In:</strong> %s
+                                                <strong>📅 Date:</strong> {{date}}<br>
+                                                <strong>🎈 Turning:</strong> {{age}} years old<br>
+                                                <strong>⏰ In:</strong> {{when}}
                                             </p>
                                         </div>
-                                        %s
+                                        {{&note}}
                                     </td>
                                 </tr>
                                 <!-- Footer -->
                                 <tr>
                                     <td style="padding: 20px 40px; text-align: center; border-top: 1px solid #eee;">
                                         <p style="color: #999; font-size: 12px; margin: 0;">
-                                            Sent by %s • <a href="#" style="color: #667eea;">Manage Notifications</a>
+                                            Sent by {{appName}} • <a href="#" style="color: #667eea;">Manage Notifications</a>
                                         </p>
                                     </td>
                                 </tr>
@@ -201,18 +455,119 @@ public class EmailService {
             </body>
             </html>
             """,
-            urgencyColor,
-            urgencyText,
-            friendName,
-            categoryBadge,
-            mainMessage,
-            birthday.getUpcomingBirthday().format(DATE_FORMATTER),
-            birthday.calculateAge() + 1,
-            daysUntil == 0 ? "Today!" : daysUntil == 1 ? "Tomorrow" : daysUntil + " days",
-            birthday.getNotes() != null && !birthday.getNotes().isEmpty() 
-                ? String.format("<p style=\"color: #666; font-style: italic;\">📝 Note: %s</p>", birthday.getNotes())
-                : "",
-            appName
-        );
-    }
+            "urgencyColor", "urgencyText", "friendName", "categoryBadge", "message", "date", "age", "when", "note",
+            "appName");
+
+    private static final HtmlTemplate CATEGORY_BADGE = HtmlTemplate.compile(
+            "<span style=\"display: inline-block; padding: 4px 12px; background-color: {{color}}20; color: {{color}}; " +
+            "border-radius: 20px; font-size: 12px; margin-left: 10px;\">{{name}}</span>",
+            "color", "name");
+
+    private static final HtmlTemplate NOTE = HtmlTemplate.compile(
+            "<p style=\"color: #666; font-style: italic;\">📝 Note: {{notes}}</p>",
+            "notes");
+
+    private static final HtmlTemplate DIGEST_LAYOUT = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            </head>
+            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f4f4f4;">
+                <table role="presentation" style="width: 100%; border-collapse: collapse;">
+                    <tr>
+                        <td align="center" style="padding: 40px 0;">
+                            <table role="presentation" style="width: 600px; border-collapse: collapse; background-color: #ffffff; border-radius: 12px; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);">
+                                <!-- Header -->
+                                <tr>
+                                    <td style="padding: 30px 40px 20px; text-align: center; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); border-radius: 12px 12px 0 0;">
+                                        <h1 style="color: #ffffff; margin: 0; font-size: 28px;">🎂 Upcoming Birthdays</h1>
+                                    </td>
+                                </tr>
+                                <!-- Content -->
+                                <tr>
+                                    <td style="padding: 30px 40px;">
+                                        <table role="presentation" style="width: 100%; border-collapse: collapse;">
+                                            {{&rows}}
+                                        </table>
+                                    </td>
+                                </tr>
+                                <!-- Footer -->
+                                <tr>
+                                    <td style="padding: 20px 40px; text-align: center; border-top: 1px solid #eee;">
+                                        <p style="color: #999; font-size: 12px; margin: 0;">
+                                            Sent by {{appName}} • <a href="#" style="color: #667eea;">Manage Notifications</a>
+                                        </p>
+                                    </td>
+                                </tr>
+                            </table>
+                        </td>
+                    </tr>
+                </table>
+            </body>
+            </html>
+            """,
+            "rows", "appName");
+
+    private static final HtmlTemplate DIGEST_ROW = HtmlTemplate.compile("""
+            <tr>
+                <td style="padding: 12px 0; border-bottom: 1px solid #eee;">
+                    <strong style="color: #333; font-size: 16px;">{{friendName}}</strong>{{&category}}<br>
+                    <span style="color: #666; font-size: 14px;">📅 {{date}} • 🎈 Turning {{age}}</span>
+                </td>
+                <td style="padding: 12px 0; border-bottom: 1px solid #eee; text-align: right; color: {{urgencyColor}}; font-weight: bold; white-space: nowrap;">
+                    {{when}}
+                </td>
+            </tr>
+            """,
+            "friendName", "category", "date", "age", "urgencyColor", "when");
+
+    private static final HtmlTemplate GREETING_LAYOUT = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+            </head>
+            <body style="margin: 0; padding: 0; font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background-color: #f4f4f4;">
+                <table role="presentation" style="width: 100%; border-collapse: collapse;">
+                    <tr>
+                        <td align="center" style="padding: 40px 0;">
+                            <table role="presentation" style="width: 600px; border-collapse: collapse; background-color: #ffffff; border-radius: 12px; box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);">
+                                <!-- Header -->
+                                <tr>
+                                    <td style="padding: 30px 40px 20px; text-align: center; background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); border-radius: 12px 12px 0 0;">
+                                        <h1 style="color: #ffffff; margin: 0; font-size: 28px;">🎉 Happy Birthday!</h1>
+                                    </td>
+                                </tr>
+                                <!-- Content -->
+                                <tr>
+                                    <td style="padding: 40px;">
+                                        <p style="color: #333; font-size: 18px; line-height: 1.6; margin: 0 0 20px;">
+                                            {{wish}}
+                                        </p>
+                                        <p style="color: #555; font-size: 16px; margin: 0;">— {{sender}}</p>
+                                    </td>
+                                </tr>
+                                <!-- Footer -->
+                                <tr>
+                                    <td style="padding: 20px 40px; text-align: center; border-top: 1px solid #eee;">
+                                        <p style="color: #999; font-size: 12px; margin: 0;">
+                                            Sent on behalf of {{sender}} by {{appName}}
+                                        </p>
+                                    </td>
+                                </tr>
+                            </table>
+                        </td>
+                    </tr>
+                </table>
+            </body>
+            </html>
+            """,
+            "wish", "sender", "appName");
+
+    private static final HtmlTemplate DIGEST_CATEGORY = HtmlTemplate.compile(
+            " <span style=\"color: {{color}}; font-size: 12px;\">{{name}}</span>",
+            "color", "name");
 }
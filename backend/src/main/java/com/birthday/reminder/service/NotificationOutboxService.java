@@ -0,0 +1,131 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.entity.NotificationOutbox;
+import com.birthday.reminder.repository.NotificationOutboxRepository;
+import com.birthday.reminder.scheduler.DueReminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Service for the notification outbox: enqueueing due reminders and recording delivery outcomes
+ * with exponential backoff and a dead-letter state.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository,
+                                     @Value("${app.outbox.max-attempts:6}") int maxAttempts,
+                                     @Value("${app.outbox.initial-backoff:PT1M}") Duration initialBackoff,
+                                     @Value("${app.outbox.max-backoff:PT6H}") Duration maxBackoff) {
+        this.outboxRepository = outboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Write due reminders to the outbox in their own transaction, so they survive a restart
+     * even when the caller's transaction is read-only.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int enqueue(List<DueReminder> reminders) {
+        List<NotificationOutbox> entries = reminders.stream()
+                .map(reminder -> NotificationOutbox.builder()
+                        .user(reminder.user())
+                        .birthday(reminder.birthday())
+                        .daysUntil(reminder.daysUntil())
+                        .birthdayDate(reminder.birthdayDate())
+                        .build())
+                .toList();
+        outboxRepository.saveAll(entries);
+        log.debug("Enqueued {} reminders in the notification outbox", entries.size());
+        return entries.size();
+    }
+
+    /**
+     * Load the next batch of pending entries whose next attempt is due.
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationOutbox> findDueBatch(int batchSize) {
+        return outboxRepository.findDue(NotificationOutbox.Status.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+    }
+
+    /**
+     * Record the outcome of a delivery batch: sent entries are closed, failed entries are
+     * rescheduled with exponential backoff or moved to DEAD after the last attempt.
+     */
+    @Transactional
+    public void recordOutcomes(Collection<Long> sentIds, Collection<Long> failedIds) {
+        LocalDateTime now = LocalDateTime.now();
+
+        outboxRepository.findAllById(sentIds).forEach(entry -> {
+            entry.setStatus(NotificationOutbox.Status.SENT);
+            entry.setAttempts(entry.getAttempts() + 1);
+            entry.setSentAt(now);
+            entry.setLastError(null);
+        });
+
+        outboxRepository.findAllById(failedIds).forEach(entry -> {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError("Delivery failed on attempt " + attempts);
+            if (attempts >= maxAttempts) {
+                entry.setStatus(NotificationOutbox.Status.DEAD);
+                log.warn("Outbox entry {} moved to dead letter after {} attempts", entry.getId(), attempts);
+            } else {
+                entry.setNextAttemptAt(now.plus(backoff(attempts)));
+            }
+        });
+    }
+
+    /**
+     * Postpone entries that could not be attempted, without counting an attempt.
+     */
+    @Transactional
+    public void defer(Collection<Long> ids, LocalDateTime until, String reason) {
+        outboxRepository.findAllById(ids).forEach(entry -> {
+            entry.setNextAttemptAt(until);
+            entry.setLastError(reason);
+        });
+    }
+
+    /**
+     * Delete sent and dead entries created before the given time.
+     *
+     * @return the number of entries deleted
+     */
+    @Transactional
+    public int purgeFinished(LocalDateTime before) {
+        int purged = outboxRepository.deleteByStatusInAndCreatedAtBefore(
+                EnumSet.of(NotificationOutbox.Status.SENT, NotificationOutbox.Status.DEAD), before);
+        if (purged > 0) {
+            log.info("Purged {} sent and dead outbox entries created before {}", purged, before);
+        }
+        return purged;
+    }
+
+    /**
+     * Delay before the next attempt: initial backoff doubled for every failed attempt, capped at max backoff.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
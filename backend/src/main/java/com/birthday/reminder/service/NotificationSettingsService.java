@@ -5,13 +5,26 @@ import com.birthday.reminder.dto.NotificationSettingsResponse;
 import com.birthday.reminder.entity.NotificationSettings;
 import com.birthday.reminder.entity.User;
 import com.birthday.reminder.exception.BadRequestException;
+import com.birthday.reminder.mail.ReminderTemplate;
+import com.birthday.reminder.mail.ReminderTemplateCache;
 import com.birthday.reminder.repository.NotificationSettingsRepository;
+import com.birthday.reminder.scheduler.NotificationSlotChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Service for notification settings operations.
@@ -21,7 +34,15 @@ import java.util.List;
 @Slf4j
 public class NotificationSettingsService {
 
+    /**
+     * Order of the backfill among the ApplicationReadyEvent listeners; listeners that read the
+     * derived columns, like the missed-slot catch-up, run after it.
+     */
+    public static final int BACKFILL_ORDER = Ordered.HIGHEST_PRECEDENCE;
+
     private final NotificationSettingsRepository settingsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReminderTemplateCache templateCache;
 
     /**
      * Get notification settings for a user.
@@ -41,6 +62,28 @@ public class NotificationSettingsService {
         return NotificationSettingsResponse.fromEntity(settings);
     }
 
+    /**
+     * Fill columns derived from the user-facing fields for rows created before they existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(BACKFILL_ORDER)
+    @Transactional
+    public void backfillDerivedColumns() {
+        List<NotificationSettings> outdated =
+                settingsRepository.findByNotificationMinuteIsNullOrNotificationDaysMaskIsNullOrTimeZoneIsNull();
+        if (outdated.isEmpty()) {
+            return;
+        }
+        outdated.forEach(settings -> {
+            settings.setNotificationMinute(NotificationSettings.toMinuteOfDayOrDefault(settings.getNotificationTime()));
+            settings.setNotificationDaysMask(NotificationSettings.toDaysMask(settings.getNotificationDays()));
+            if (settings.getTimeZone() == null) {
+                settings.setTimeZone(ZoneId.systemDefault().getId());
+            }
+        });
+        log.info("Backfilled derived notification settings columns for {} rows", outdated.size());
+    }
+
     /**
      * Update notification settings for a user.
      */
@@ -55,8 +98,9 @@ public class NotificationSettingsService {
         if (request.getNotificationDays() != null) {
             // Validate days are within range (0-30)
             for (Integer day : request.getNotificationDays()) {
-                if (day < 0 || day > 30) {
-                    throw new BadRequestException("Notification days must be between 0 and 30");
+                if (day == null || day < 0 || day > NotificationSettings.MAX_LEAD_DAYS) {
+                    throw new BadRequestException(
+                            "Notification days must be between 0 and " + NotificationSettings.MAX_LEAD_DAYS);
                 }
             }
             settings.setNotificationDaysList(request.getNotificationDays());
@@ -65,16 +109,79 @@ public class NotificationSettingsService {
         if (request.getEmailEnabled() != null) {
             settings.setEmailEnabled(request.getEmailEnabled());
         }
+        ReminderTemplate compiledTemplate = null;
         if (request.getEmailTemplate() != null) {
-            settings.setEmailTemplate(request.getEmailTemplate());
+            try {
+                compiledTemplate = ReminderTemplate.compile(request.getEmailTemplate());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            settings.updateEmailTemplate(request.getEmailTemplate());
         }
         if (request.getNotificationTime() != null) {
-            settings.setNotificationTime(request.getNotificationTime());
+            int minuteOfDay = parseTime(request.getNotificationTime(), "Notification time");
+            settings.setNotificationTime(String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60));
+            settings.setNotificationMinute(minuteOfDay);
+        }
+        if (request.getTimeZone() != null) {
+            try {
+                settings.setTimeZone(ZoneId.of(request.getTimeZone()).getId());
+            } catch (DateTimeException e) {
+                throw new BadRequestException("Invalid time zone: " + request.getTimeZone());
+            }
+        }
+
+        if (request.getDigestEnabled() != null) {
+            settings.setDigestEnabled(request.getDigestEnabled());
+        }
+        if (request.getWeeklyDigestDay() != null) {
+            settings.setWeeklyDigestDay(parseDayOfWeek(request.getWeeklyDigestDay()));
+        }
+
+        if (request.getGreetingEnabled() != null) {
+            settings.setGreetingEnabled(request.getGreetingEnabled());
+        }
+        if (request.getGreetingTime() != null) {
+            int minuteOfDay = parseTime(request.getGreetingTime(), "Greeting time");
+            settings.setGreetingTime(String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60));
+            settings.setGreetingMinute(minuteOfDay);
         }
 
         NotificationSettings updatedSettings = settingsRepository.save(settings);
+        if (compiledTemplate != null) {
+            templateCache.put(updatedSettings, compiledTemplate);
+        }
+        if (updatedSettings.getEmailEnabled()) {
+            eventPublisher.publishEvent(new NotificationSlotChangedEvent(
+                    updatedSettings.getTimeZone(), updatedSettings.getNotificationMinute()));
+        }
         log.info("Notification settings updated for user: {}", user.getEmail());
 
         return NotificationSettingsResponse.fromEntity(updatedSettings);
     }
+
+    /**
+     * Parse a time of day in HH:mm format to minute of day.
+     */
+    private int parseTime(String time, String field) {
+        try {
+            return NotificationSettings.toMinuteOfDay(time);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(field + " must be in HH:mm format");
+        }
+    }
+
+    /**
+     * Parse a day of the week name, case-insensitively. An empty string means none.
+     */
+    private DayOfWeek parseDayOfWeek(String day) {
+        if (day.isBlank()) {
+            return null;
+        }
+        try {
+            return DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid day of week: " + day);
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.dto.ReminderForecastResponse;
+import com.birthday.reminder.dto.ReminderForecastResponse.HourlyForecast;
+import com.birthday.reminder.entity.NotificationSettings;
+import com.birthday.reminder.exception.BadRequestException;
+import com.birthday.reminder.repository.BirthdayRepository;
+import com.birthday.reminder.scheduler.DueReminderFinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Projects how many emails the scheduler will send, and how many reminders they carry, in each hour
+ * of a date range.
+ * <p>
+ * Birthdays are counted in the database, grouped by the settings that decide when their reminders go
+ * out and by month/day. Each group becomes an in-memory calendar histogram (birthdays per month/day),
+ * so every day of the range costs a few array lookups per group, independent of the number of birthdays.
+ * Every reminder is its own email, except for users with a daily or weekly digest: they get one email
+ * per digest, so their birthdays are counted per user and projected user by user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderForecastService {
+
+    /**
+     * Longest range that can be forecast at once.
+     */
+    public static final int MAX_FORECAST_DAYS = 92;
+
+    /**
+     * Size of a calendar histogram indexed by month/day key (month * 100 + day).
+     */
+    private static final int MONTH_DAY_KEYS = 12 * 100 + 32;
+
+    private static final int EMAILS = 0;
+    private static final int REMINDERS = 1;
+
+    private final BirthdayRepository birthdayRepository;
+
+    /**
+     * Settings shared by all users whose reminders are sent at the same local times.
+     */
+    private record Schedule(String timeZone, int minuteOfDay, int daysMask, DayOfWeek weeklyDigestDay) {
+    }
+
+    /**
+     * A local date and the lead days looked at on it.
+     */
+    private record DueDays(LocalDate date, int daysMask) {
+    }
+
+    /**
+     * Emails and reminders per UTC hour of [start, end), added up schedule by schedule.
+     */
+    private static final class Projection {
+        final Instant start;
+        final Instant end;
+        final TreeMap<Instant, long[]> perHour = new TreeMap<>();
+        /** Month/day keys due per date and days mask, shared by the schedules using them. */
+        final Map<DueDays, int[]> dueKeys = new HashMap<>();
+
+        Projection(Instant start, Instant end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Forecast the emails sent per UTC hour from the start of {@code from} to the end of {@code to} (UTC).
+     */
+    @Transactional(readOnly = true)
+    public ReminderForecastResponse forecast(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Forecast end date must not be before the start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_FORECAST_DAYS) {
+            throw new BadRequestException("Forecast range cannot exceed " + MAX_FORECAST_DAYS + " days");
+        }
+
+        long started = System.nanoTime();
+        Projection projection = new Projection(
+                from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+        Map<Schedule, long[]> calendars = loadCalendars();
+        calendars.forEach((schedule, calendar) -> project(schedule, calendar, false, projection));
+        int digestUsers = projectDigestUsers(projection);
+
+        List<HourlyForecast> hours = new ArrayList<>(projection.perHour.size());
+        long totalEmails = 0;
+        long totalReminders = 0;
+        HourlyForecast peak = null;
+        for (Map.Entry<Instant, long[]> entry : projection.perHour.entrySet()) {
+            HourlyForecast hour = new HourlyForecast(entry.getKey(), entry.getValue()[EMAILS], entry.getValue()[REMINDERS]);
+            hours.add(hour);
+            totalEmails += hour.getEmails();
+            totalReminders += hour.getReminders();
+            if (peak == null || hour.getEmails() > peak.getEmails()) {
+                peak = hour;
+            }
+        }
+
+        log.info("Forecast {} emails with {} reminders from {} to {} over {} schedules and {} digest users in {} ms",
+                totalEmails, totalReminders, from, to, calendars.size(), digestUsers,
+                (System.nanoTime() - started) / 1_000_000);
+
+        return ReminderForecastResponse.builder()
+                .from(from)
+                .to(to)
+                .totalEmails(totalEmails)
+                .totalReminders(totalReminders)
+                .peakHour(peak != null ? peak.getHour() : null)
+                .peakEmails(peak != null ? peak.getEmails() : 0)
+                .hours(hours)
+                .build();
+    }
+
+    /**
+     * Build a calendar histogram of active birthdays per month/day for every schedule in use by users
+     * without a digest.
+     */
+    private Map<Schedule, long[]> loadCalendars() {
+        Map<Schedule, long[]> calendars = new HashMap<>();
+        for (Object[] row : birthdayRepository.countActiveBySettingsAndMonthDay()) {
+            Schedule schedule = scheduleOf(row[0], row[1], row[2], null);
+            int monthDay = ((Number) row[3]).intValue() * 100 + ((Number) row[4]).intValue();
+            calendars.computeIfAbsent(schedule, s -> new long[MONTH_DAY_KEYS])[monthDay] += ((Number) row[5]).longValue();
+        }
+        return calendars;
+    }
+
+    /**
+     * Project the digests of every digest user, one user at a time, reusing a single calendar.
+     *
+     * @return the number of digest users
+     */
+    private int projectDigestUsers(Projection projection) {
+        long[] calendar = new long[MONTH_DAY_KEYS];
+        List<Integer> monthDays = new ArrayList<>();
+        Object userId = null;
+        Schedule schedule = null;
+        int users = 0;
+
+        for (Object[] row : birthdayRepository.countActiveOfDigestUsersByMonthDay()) {
+            if (!Objects.equals(row[0], userId)) {
+                if (schedule != null) {
+                    project(schedule, calendar, true, projection);
+                    monthDays.forEach(monthDay -> calendar[monthDay] = 0);
+                    monthDays.clear();
+                }
+                userId = row[0];
+                schedule = scheduleOf(row[1], row[2], row[3], (DayOfWeek) row[4]);
+                users++;
+            }
+            int monthDay = ((Number) row[5]).intValue() * 100 + ((Number) row[6]).intValue();
+            calendar[monthDay] += ((Number) row[7]).longValue();
+            monthDays.add(monthDay);
+        }
+        if (schedule != null) {
+            project(schedule, calendar, true, projection);
+        }
+        return users;
+    }
+
+    private static Schedule scheduleOf(Object timeZone, Object minuteOfDay, Object daysMask, DayOfWeek weeklyDigestDay) {
+        return new Schedule(
+                timeZone != null ? (String) timeZone : ZoneId.systemDefault().getId(),
+                minuteOfDay != null ? (Integer) minuteOfDay : NotificationSettings.DEFAULT_NOTIFICATION_MINUTE,
+                daysMask != null ? (Integer) daysMask : NotificationSettings.toDaysMask(null),
+                weeklyDigestDay);
+    }
+
+    /**
+     * Add the emails and reminders of one schedule sent in the projection's range to its per-hour totals.
+     *
+     * @param digest whether the calendar is a single user's whose reminders of a day are combined
+     *               into one email
+     */
+    private void project(Schedule schedule, long[] calendar, boolean digest, Projection projection) {
+        ZoneId zone = ZoneId.of(schedule.timeZone());
+        LocalTime sendTime = LocalTime.ofSecondOfDay(schedule.minuteOfDay() * 60L);
+        // A week-ahead digest covers the next 7 days, once a week
+        int daysMask = schedule.weeklyDigestDay() != null
+                ? (1 << DueReminderFinder.WEEKLY_DIGEST_DAYS) - 1
+                : schedule.daysMask();
+
+        LocalDate last = projection.end.atZone(zone).toLocalDate();
+        for (LocalDate date = projection.start.atZone(zone).toLocalDate(); !date.isAfter(last); date = date.plusDays(1)) {
+            if (schedule.weeklyDigestDay() != null && date.getDayOfWeek() != schedule.weeklyDigestDay()) {
+                continue;
+            }
+            Instant sendAt = ZonedDateTime.of(date, sendTime, zone).toInstant();
+            if (sendAt.isBefore(projection.start) || !sendAt.isBefore(projection.end)) {
+                continue;
+            }
+
+            long reminders = 0;
+            for (int monthDay : projection.dueKeys.computeIfAbsent(new DueDays(date, daysMask),
+                    due -> DueReminderFinder.monthDayKeys(due.date(), due.daysMask()).stream()
+                            .mapToInt(Integer::intValue).toArray())) {
+                reminders += calendar[monthDay];
+            }
+            if (reminders > 0) {
+                long[] hour = projection.perHour.computeIfAbsent(sendAt.truncatedTo(ChronoUnit.HOURS), h -> new long[2]);
+                hour[EMAILS] += digest ? 1 : reminders;
+                hour[REMINDERS] += reminders;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service for database-backed leases shared by all application nodes.
+ * A node that holds a lease renews it by acquiring it again; if it stops renewing,
+ * the lease expires and another node can take over.
+ */
+@Service
+@Slf4j
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate transaction;
+    private final String nodeId;
+    private final ScheduledExecutorService renewals =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("lease-renewal-"));
+
+    /**
+     * Background renewal of a lease, started by {@link #keepRenewed}. Closing it stops the renewal.
+     */
+    public static final class Renewal implements AutoCloseable {
+
+        private volatile ScheduledFuture<?> task;
+        private volatile boolean lost;
+
+        /**
+         * Check if a renewal found the lease held by another node.
+         */
+        public boolean isLost() {
+            return lost;
+        }
+
+        @Override
+        public void close() {
+            task.cancel(false);
+        }
+    }
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.scheduler.node-id:}") String nodeId) {
+        this.leaseRepository = leaseRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        log.info("Scheduler node id: {}", this.nodeId);
+    }
+
+    /**
+     * Acquire or renew a lease for the given duration.
+     *
+     * @return true if this node now holds the lease
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+
+        Integer updated = transaction.execute(status -> leaseRepository.takeOrRenew(name, nodeId, now, expiresAt));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+        if (leaseRepository.existsById(name)) {
+            // Held by another node
+            return false;
+        }
+
+        // First use of this lease: whoever inserts the row first holds it
+        try {
+            transaction.executeWithoutResult(status -> leaseRepository.insert(name, nodeId, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Keep renewing a lease this node holds every third of its time to live, in the background,
+     * until the returned renewal is closed. Covers work that can outlast the lease between two
+     * explicit renewals, such as sending a chunk of rate-limited mail.
+     */
+    public Renewal keepRenewed(String name, Duration ttl) {
+        Renewal renewal = new Renewal();
+        long periodMillis = Math.max(1, ttl.toMillis() / 3);
+        renewal.task = renewals.scheduleAtFixedRate(() -> {
+            try {
+                if (!renewal.lost && !tryAcquire(name, ttl)) {
+                    renewal.lost = true;
+                    log.warn("Lease {} was taken over by another node", name);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew lease {}: {}", name, e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return renewal;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renewals.shutdownNow();
+    }
+}
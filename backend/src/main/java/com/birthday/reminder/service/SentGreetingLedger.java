@@ -0,0 +1,64 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.entity.Birthday;
+import com.birthday.reminder.entity.SentGreeting;
+import com.birthday.reminder.repository.SentGreetingRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ledger of birthday greetings sent to friends, keyed by (birthday id, birthday year).
+ * Separate from SentReminderLedger, which tracks the reminders sent to users.
+ * <p>
+ * Like reminders, a greeting is claimed in the ledger before it is sent, and its claim is released
+ * if it could not be sent, so concurrent runs never send the same greeting twice.
+ */
+@Service
+public class SentGreetingLedger {
+
+    private final SentGreetingRepository sentGreetingRepository;
+    private final ClaimLedger claims;
+
+    public SentGreetingLedger(SentGreetingRepository sentGreetingRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.sentGreetingRepository = sentGreetingRepository;
+        this.claims = new ClaimLedger("greetings", transactionManager);
+    }
+
+    /**
+     * Claim the greetings of the given birthdays for the given year before sending them, the batch
+     * in its own transaction. If a concurrent run inserted one of the same entries first, the batch
+     * is rolled back and the greetings are claimed one at a time.
+     *
+     * @return the birthdays claimed by this call, in order; only their greetings may be sent
+     */
+    public List<Birthday> claim(List<Birthday> birthdays, int year) {
+        return claims.claim(birthdays, Birthday::getId,
+                batch -> sentGreetingRepository.findSentBirthdayIds(batch.stream().map(Birthday::getId).toList(), year),
+                batch -> insert(batch, year));
+    }
+
+    /**
+     * Release the claims of greetings that could not be sent, so a later run can send them.
+     * A claim that cannot be released is only logged; that greeting is then not sent.
+     */
+    public void release(Collection<Long> birthdayIds, int year) {
+        claims.release(birthdayIds, released -> sentGreetingRepository.deleteByBirthdayIds(released, year));
+    }
+
+    private void insert(List<Birthday> birthdays, int year) {
+        List<SentGreeting> entries = new ArrayList<>(birthdays.size());
+        for (Birthday birthday : birthdays) {
+            entries.add(SentGreeting.builder()
+                    .birthdayId(birthday.getId())
+                    .birthdayYear(year)
+                    .build());
+        }
+        sentGreetingRepository.saveAll(entries);
+        sentGreetingRepository.flush();
+    }
+}
@@ -0,0 +1,132 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.entity.SentReminder;
+import com.birthday.reminder.repository.SentReminderRepository;
+import com.birthday.reminder.scheduler.DueReminder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ledger of delivered reminders, keyed by (birthday id, birthday year, lead day).
+ * Lets the scheduler suppress duplicates when a run is repeated or overlaps another one.
+ * <p>
+ * A reminder is claimed in the ledger before it is sent, and its claim is released if it could not
+ * be sent. The unique key decides between runs claiming the same reminder at the same time, so only
+ * one of them sends it.
+ */
+@Service
+@Slf4j
+public class SentReminderLedger {
+
+    /**
+     * Maximum number of birthday ids per IN clause.
+     */
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final SentReminderRepository sentReminderRepository;
+    private final ClaimLedger claims;
+
+    public SentReminderLedger(SentReminderRepository sentReminderRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.sentReminderRepository = sentReminderRepository;
+        this.claims = new ClaimLedger("reminders", transactionManager);
+    }
+
+    /**
+     * Identity of a reminder in the ledger.
+     */
+    record Key(long birthdayId, int birthdayYear, int leadDay) {
+    }
+
+    /**
+     * Drop the reminders that have already been delivered, using one lookup per chunk of birthdays.
+     */
+    @Transactional(readOnly = true)
+    public List<DueReminder> filterUnsent(List<DueReminder> reminders) {
+        if (reminders.isEmpty()) {
+            return reminders;
+        }
+
+        Set<Key> delivered = findDelivered(reminders);
+        if (delivered.isEmpty()) {
+            return reminders;
+        }
+
+        List<DueReminder> unsent = new ArrayList<>(reminders.size());
+        for (DueReminder reminder : reminders) {
+            if (!delivered.contains(keyOf(reminder))) {
+                unsent.add(reminder);
+            }
+        }
+        log.info("Suppressed {} reminders already delivered", reminders.size() - unsent.size());
+        return unsent;
+    }
+
+    /**
+     * Claim reminders before sending them by inserting their ledger entries, each batch in its own
+     * transaction. If a concurrent run inserted one of the same entries first, the batch is rolled
+     * back and the reminders are claimed one at a time, so a duplicate only loses itself.
+     *
+     * @return the reminders claimed by this call, in order; only these may be sent
+     */
+    public List<DueReminder> claim(List<DueReminder> reminders) {
+        return claims.claim(reminders, SentReminderLedger::keyOf, this::findDelivered, this::insert);
+    }
+
+    /**
+     * Release the claims of reminders that could not be sent, so a later run can send them.
+     * A claim that cannot be released is only logged; that reminder is then not sent again.
+     */
+    public void release(Collection<DueReminder> reminders) {
+        claims.release(reminders, released -> {
+            for (DueReminder reminder : released) {
+                Key key = keyOf(reminder);
+                sentReminderRepository.deleteByKey(key.birthdayId(), key.birthdayYear(), key.leadDay());
+            }
+        });
+    }
+
+    private void insert(List<DueReminder> reminders) {
+        List<SentReminder> entries = new ArrayList<>(reminders.size());
+        for (DueReminder reminder : reminders) {
+            Key key = keyOf(reminder);
+            entries.add(SentReminder.builder()
+                    .birthdayId(key.birthdayId())
+                    .birthdayYear(key.birthdayYear())
+                    .leadDay(key.leadDay())
+                    .build());
+        }
+        sentReminderRepository.saveAll(entries);
+        sentReminderRepository.flush();
+    }
+
+    private Set<Key> findDelivered(Collection<DueReminder> reminders) {
+        Set<Integer> years = new HashSet<>();
+        List<Long> birthdayIds = new ArrayList<>(reminders.size());
+        for (DueReminder reminder : reminders) {
+            birthdayIds.add(reminder.birthday().getId());
+            years.add(reminder.birthdayDate().getYear());
+        }
+
+        Set<Key> delivered = new HashSet<>();
+        for (int from = 0; from < birthdayIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = birthdayIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, birthdayIds.size()));
+            for (SentReminder entry : sentReminderRepository.findByBirthdayIdsAndYears(chunk, years)) {
+                delivered.add(new Key(entry.getBirthdayId(), entry.getBirthdayYear(), entry.getLeadDay()));
+            }
+        }
+        return delivered;
+    }
+
+    private static Key keyOf(DueReminder reminder) {
+        return new Key(reminder.birthday().getId(), reminder.birthdayDate().getYear(), reminder.daysUntil());
+    }
+}
@@ -27,7 +27,8 @@ public class WishService {
     public List<String> generateWishes(Birthday birthday, int count, String tone) {
         String friendName = birthday.getFriendName();
         String firstName = friendName.split(" ")[0]; // Use first name for more personal feel
-        int age = birthday.calculateAge() + 1;
+        // Age at the upcoming birthday, which is today's when the wish is sent on the day itself
+        int age = birthday.getUpcomingBirthday().getYear() - birthday.getBirthDate().getYear();
         String category = birthday.getCategory() != null ? birthday.getCategory().getName() : "friend";
         String notes = birthday.getNotes();
 
@@ -0,0 +1,69 @@
+package com.birthday.reminder.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationSettingsTest {
+
+    @Test
+    void toDaysMaskSetsOneBitPerDay() {
+        assertThat(NotificationSettings.toDaysMask("7,3,1")).isEqualTo((1 << 7) | (1 << 3) | (1 << 1));
+        assertThat(NotificationSettings.toDaysMask(" 0 , 30 ")).isEqualTo(1 | (1 << 30));
+    }
+
+    @Test
+    void toDaysMaskDefaultsToOneDayBefore() {
+        assertThat(NotificationSettings.toDaysMask(null)).isEqualTo(1 << 1);
+        assertThat(NotificationSettings.toDaysMask("")).isEqualTo(1 << 1);
+    }
+
+    @Test
+    void toDaysMaskIgnoresEntriesOutsideTheRange() {
+        assertThat(NotificationSettings.toDaysMask("-1,31,32,3")).isEqualTo(1 << 3);
+        assertThat(NotificationSettings.toDaysMask("abc,,7")).isEqualTo(1 << 7);
+    }
+
+    @Test
+    void isDayInMaskChecksTheDaysBit() {
+        int mask = NotificationSettings.toDaysMask("0,7,30");
+
+        assertThat(NotificationSettings.isDayInMask(mask, 0)).isTrue();
+        assertThat(NotificationSettings.isDayInMask(mask, 7)).isTrue();
+        assertThat(NotificationSettings.isDayInMask(mask, 30)).isTrue();
+        assertThat(NotificationSettings.isDayInMask(mask, 1)).isFalse();
+        assertThat(NotificationSettings.isDayInMask(mask, 29)).isFalse();
+    }
+
+    @Test
+    void isDayInMaskRejectsDaysOutsideTheMask() {
+        assertThat(NotificationSettings.isDayInMask(-1, -1)).isFalse();
+        assertThat(NotificationSettings.isDayInMask(-1, 32)).isFalse();
+        assertThat(NotificationSettings.isDayInMask(1, 32)).isFalse();
+    }
+
+    @Test
+    void builtSettingsMaskFollowsTheirNotificationDays() {
+        NotificationSettings settings = NotificationSettings.builder().notificationDays("0,2").build();
+
+        assertThat(settings.getNotificationDaysMask()).isEqualTo(1 | (1 << 2));
+        assertThat(settings.getNotificationDaysList()).containsExactly(0, 2);
+        assertThat(settings.shouldNotifyOnDay(2)).isTrue();
+        assertThat(settings.shouldNotifyOnDay(7)).isFalse();
+    }
+
+    @Test
+    void settersKeepTheMaskInSync() {
+        NotificationSettings settings = NotificationSettings.createDefault(null);
+        assertThat(settings.getNotificationDaysMask()).isEqualTo(NotificationSettings.toDaysMask("7,3,1"));
+
+        settings.setNotificationDays("5");
+        assertThat(settings.getNotificationDaysMask()).isEqualTo(1 << 5);
+
+        settings.setNotificationDaysList(List.of(14, 0));
+        assertThat(settings.getNotificationDays()).isEqualTo("0,14");
+        assertThat(settings.getNotificationDaysMask()).isEqualTo(1 | (1 << 14));
+    }
+}
@@ -0,0 +1,65 @@
+package com.birthday.reminder.mail;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HtmlTemplateTest {
+
+    @Test
+    void rendersSlotsPositionallyInDeclarationOrder() {
+        HtmlTemplate template = HtmlTemplate.compile("<p>{{ b }} and {{a}}, again {{b}}</p>", "a", "b");
+
+        assertThat(template.render("first", "second")).isEqualTo("<p>second and first, again second</p>");
+    }
+
+    @Test
+    void escapesValuesUnlessTheSlotIsRaw() {
+        HtmlTemplate template = HtmlTemplate.compile("<p>{{text}}</p>{{&html}}", "text", "html");
+
+        assertThat(template.render("<b>Tom & \"Jerry\"</b> 'n", "<b>bold</b>"))
+                .isEqualTo("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt; &#39;n</p><b>bold</b>");
+    }
+
+    @Test
+    void rendersNullValuesAsEmpty() {
+        HtmlTemplate template = HtmlTemplate.compile("[{{a}}]", "a");
+
+        assertThat(template.render((CharSequence) null)).isEqualTo("[]");
+    }
+
+    @Test
+    void renderToAppendsToTheGivenBuilder() {
+        HtmlTemplate row = HtmlTemplate.compile("<li>{{name}}</li>", "name");
+        StringBuilder rows = new StringBuilder("<ul>");
+
+        row.renderTo(rows, "Ann");
+        row.renderTo(rows, "Bob");
+
+        assertThat(rows.append("</ul>")).hasToString("<ul><li>Ann</li><li>Bob</li></ul>");
+    }
+
+    @Test
+    void rejectsUndeclaredUnusedAndUnterminatedSlots() {
+        assertThatThrownBy(() -> HtmlTemplate.compile("{{a}} {{b}}", "a"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("'b'");
+        assertThatThrownBy(() -> HtmlTemplate.compile("{{a}}", "a", "b"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("'b'");
+        assertThatThrownBy(() -> HtmlTemplate.compile("{{a", "a"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Unterminated");
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfValues() {
+        HtmlTemplate template = HtmlTemplate.compile("{{a}}{{b}}", "a", "b");
+
+        assertThatThrownBy(() -> template.render("only one")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void escapeReturnsPlainTextUnchanged() {
+        assertThat(HtmlTemplate.escape("plain text")).isEqualTo("plain text");
+        assertThat(HtmlTemplate.escape("a<b")).isEqualTo("a&lt;b");
+    }
+}
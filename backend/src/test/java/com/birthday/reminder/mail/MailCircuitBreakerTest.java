@@ -0,0 +1,128 @@
+package com.birthday.reminder.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailCircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsSends() {
+        MailCircuitBreaker breaker = new MailCircuitBreaker(3, Duration.ofMinutes(1), 1);
+
+        fail(breaker, 2);
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.CLOSED);
+        fail(breaker, 1);
+
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        MailCircuitBreaker breaker = new MailCircuitBreaker(3, Duration.ofMinutes(1), 1);
+
+        fail(breaker, 2);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.recordSuccess();
+        fail(breaker, 2);
+
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsProbesThroughOnceOpenDurationHasPassed() {
+        MailCircuitBreaker breaker = new MailCircuitBreaker(1, Duration.ZERO, 1);
+        fail(breaker, 1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lateSuccessDoesNotCloseAnOpenCircuit() {
+        MailCircuitBreaker breaker = new MailCircuitBreaker(1, Duration.ofMinutes(1), 1);
+        // Started before the circuit opened, finished after
+        assertThat(breaker.tryAcquire()).isTrue();
+        fail(breaker, 1);
+
+        breaker.recordSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() {
+        MailCircuitBreaker breaker = new MailCircuitBreaker(1, Duration.ZERO, 1);
+        fail(breaker, 1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.recordFailure();
+
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void releasedProbeFreesItsSlot() {
+        MailCircuitBreaker breaker = new MailCircuitBreaker(1, Duration.ZERO, 1);
+        fail(breaker, 1);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(MailCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void connectionAndAuthenticationFailuresAreServerFailures() {
+        assertThat(MailCircuitBreaker.isServerFailure(
+                new MailSendException("Mail server connection failed", new MessagingException("Connection refused"))))
+                .isTrue();
+        assertThat(MailCircuitBreaker.isServerFailure(new MailAuthenticationException("Authentication failed")))
+                .isTrue();
+    }
+
+    @Test
+    void failuresOfOneMessageAreNotServerFailures() {
+        SendFailedException rejected = new SendFailedException("550 No such user", null,
+                new InternetAddress[0], new InternetAddress[0], new InternetAddress[]{new InternetAddress()});
+
+        assertThat(MailCircuitBreaker.isServerFailure(new MailSendException("Failed", rejected))).isFalse();
+        assertThat(MailCircuitBreaker.isServerFailure(
+                new MailSendException(Map.of(new Object(), new AddressException("Illegal address"))))).isFalse();
+        assertThat(MailCircuitBreaker.isServerFailure(new MailPreparationException("Bad content"))).isFalse();
+    }
+
+    @Test
+    void batchWithAnyServerFailureIsAServerFailure() {
+        Map<Object, Exception> failed = Map.of(
+                new Object(), new AddressException("Illegal address"),
+                new Object(), new MessagingException("421 Service not available"));
+
+        assertThat(MailCircuitBreaker.isServerFailure(new MailSendException(failed))).isTrue();
+    }
+
+    private static void fail(MailCircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.recordFailure();
+        }
+    }
+}
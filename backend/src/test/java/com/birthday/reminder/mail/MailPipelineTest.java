@@ -0,0 +1,51 @@
+package com.birthday.reminder.mail;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MailPipelineTest {
+
+    @Test
+    void shutdownCompletesEveryJobIncludingThoseHeldByWorkers() throws Exception {
+        // One send worker and a send queue of two, so the fourth job is held by the render worker
+        MailPipeline pipeline = new MailPipeline(1, 1, 10, "fail", Duration.ZERO);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch never = new CountDownLatch(1);
+        MimeMessage message = mock(MimeMessage.class);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(pipeline.submit(() -> message, sent -> {
+                sending.countDown();
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipeline.getStats().getSendQueueDepth() < 2 || pipeline.getStats().getRenderQueueDepth() > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        pipeline.shutdown();
+
+        for (CompletableFuture<Void> future : futures) {
+            future.handle((result, error) -> null).get(5, TimeUnit.SECONDS);
+            assertThat(future).isCompletedExceptionally();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.birthday.reminder.mail;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReminderTemplateTest {
+
+    @Test
+    void rendersEveryPlaceholder() {
+        ReminderTemplate template = ReminderTemplate.compile(
+                "{friendName} turns {age} on {birthDate}, in {daysUntil} days. {friendName}!");
+
+        assertThat(template.render("Ann", "March 1, 2025", 30, 3))
+                .isEqualTo("Ann turns 30 on March 1, 2025, in 3 days. Ann!");
+    }
+
+    @Test
+    void escapesTheFriendNameButNotTheTemplate() {
+        ReminderTemplate template = ReminderTemplate.compile("<b>{friendName}</b>");
+
+        assertThat(template.render("<i>Tom & Jerry</i>", "", 0, 0))
+                .isEqualTo("<b>&lt;i&gt;Tom &amp; Jerry&lt;/i&gt;</b>");
+    }
+
+    @Test
+    void keepsBracesAroundNonWordsAsText() {
+        ReminderTemplate template = ReminderTemplate.compile("a {x y} { {friendName} {} {");
+
+        assertThat(template.render("Ann", "", 0, 0)).isEqualTo("a {x y} { Ann {} {");
+    }
+
+    @Test
+    void compileRejectsUnknownPlaceholders() {
+        assertThatThrownBy(() -> ReminderTemplate.compile("Hi {name}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{name}")
+                .hasMessageContaining("{friendName}");
+    }
+
+    @Test
+    void compileLenientKeepsUnknownPlaceholdersAsText() {
+        ReminderTemplate template = ReminderTemplate.compileLenient("Hi {name}, {friendName}");
+
+        assertThat(template.render("Ann", "", 0, 0)).isEqualTo("Hi {name}, Ann");
+    }
+}
@@ -0,0 +1,41 @@
+package com.birthday.reminder.mail;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void startsFullAndAllowsABurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void reportsTheTimeUntilTheNextToken() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryConsume(0);
+
+        assertThat(bucket.tryConsume(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryConsume(SECOND / 2)).isZero();
+    }
+
+    @Test
+    void refillsContinuouslyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryConsume(0);
+        }
+
+        assertThat(bucket.available(SECOND / 4)).isCloseTo(2.5, within(1e-9));
+        assertThat(bucket.available(60 * SECOND)).isEqualTo(5);
+    }
+}
@@ -0,0 +1,92 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.SchedulerCheckpoint;
+import com.birthday.reminder.mail.MailCircuitBreaker;
+import com.birthday.reminder.repository.BirthdayRepository;
+import com.birthday.reminder.repository.NotificationSettingsRepository;
+import com.birthday.reminder.repository.SchedulerCheckpointRepository;
+import com.birthday.reminder.repository.SchedulerRunRepository;
+import com.birthday.reminder.service.EmailService;
+import com.birthday.reminder.service.NotificationOutboxService;
+import com.birthday.reminder.service.SchedulerLeaseService;
+import com.birthday.reminder.service.SentReminderLedger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BirthdayNotificationSchedulerTest {
+
+    private static final String CHECKPOINT = "reminders:1:0";
+
+    private final NotificationSettingsRepository settingsRepository = mock(NotificationSettingsRepository.class);
+    private final SchedulerLeaseService leaseService = mock(SchedulerLeaseService.class);
+    private final SchedulerCheckpointRepository checkpointRepository = mock(SchedulerCheckpointRepository.class);
+    private final SchedulerRunRepository runRepository = mock(SchedulerRunRepository.class);
+
+    private final BirthdayNotificationScheduler scheduler = new BirthdayNotificationScheduler(
+            mock(BirthdayRepository.class), settingsRepository, mock(EmailService.class),
+            mock(DueReminderFinder.class), mock(ReminderDispatcher.class), mock(NotificationOutboxService.class),
+            mock(SentReminderLedger.class), mock(PlatformTransactionManager.class), leaseService,
+            checkpointRepository, mock(MailCircuitBreaker.class), runRepository);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "mode", BirthdayNotificationScheduler.MODE_DUE_QUERY);
+        ReflectionTestUtils.setField(scheduler, "delivery", BirthdayNotificationScheduler.DELIVERY_DIRECT);
+        ReflectionTestUtils.setField(scheduler, "trigger", BirthdayNotificationScheduler.TRIGGER_CRON);
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 500);
+        ReflectionTestUtils.setField(scheduler, "shardCount", 1);
+        ReflectionTestUtils.setField(scheduler, "leaseTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(scheduler, "maxCatchUp", Duration.ofHours(24));
+        ReflectionTestUtils.setField(scheduler, "runHistoryRetention", Duration.ofDays(30));
+
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(true);
+        when(leaseService.keepRenewed(anyString(), any())).thenReturn(mock(SchedulerLeaseService.Renewal.class));
+        when(settingsRepository.findEnabledTimeZones()).thenReturn(List.of("UTC"));
+        when(settingsRepository.findEnabledUserIdsInSlot(anyString(), anyInt(), anyInt(), anyLong(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void catchUpWithoutCheckpointDoesNotCreateOne() {
+        when(checkpointRepository.findById(CHECKPOINT)).thenReturn(Optional.empty());
+
+        scheduler.catchUpMissedSlots();
+
+        verify(checkpointRepository, never()).save(any());
+        verify(runRepository, never()).save(any());
+    }
+
+    @Test
+    void emptyWindowReplaysFromTheCheckpointAndAdvancesIt() {
+        Instant hourEnd = Instant.parse("2025-03-10T12:00:00Z");
+        SchedulerCheckpoint checkpoint = new SchedulerCheckpoint(CHECKPOINT, hourEnd.minus(3, ChronoUnit.HOURS));
+        when(checkpointRepository.findById(CHECKPOINT)).thenReturn(Optional.of(checkpoint));
+
+        scheduler.processWindow(BirthdayNotificationScheduler.RUN_CATCH_UP, hourEnd, hourEnd);
+
+        ArgumentCaptor<SchedulerCheckpoint> saved = ArgumentCaptor.forClass(SchedulerCheckpoint.class);
+        verify(checkpointRepository).save(saved.capture());
+        assertThat(saved.getValue().getCoveredUntil()).isEqualTo(hourEnd);
+        verify(settingsRepository).findEnabledUserIdsInSlot(eq("UTC"), anyInt(), anyInt(), anyLong(), anyInt(), anyInt(), any());
+    }
+}
@@ -0,0 +1,122 @@
+package com.birthday.reminder.scheduler;
+
+import com.birthday.reminder.entity.Birthday;
+import com.birthday.reminder.entity.NotificationSettings;
+import com.birthday.reminder.entity.User;
+import com.birthday.reminder.repository.BirthdayRepository;
+import com.birthday.reminder.repository.NotificationSettingsRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DueReminderFinderTest {
+
+    private static final int TODAY_TO_TWO_DAYS = 0b111;
+
+    private final BirthdayRepository birthdayRepository = mock(BirthdayRepository.class);
+    private final DueReminderFinder finder =
+            new DueReminderFinder(birthdayRepository, mock(NotificationSettingsRepository.class));
+
+    @Test
+    void monthDayOffsetsMapsEachDateToItsLeadDay() {
+        Map<Integer, Integer> offsets = DueReminderFinder.monthDayOffsets(LocalDate.of(2024, 6, 10), (1 << 1) | (1 << 7));
+
+        assertThat(offsets).containsExactly(entry(611, 1), entry(617, 7));
+    }
+
+    @Test
+    void monthDayOffsetsMatchesFeb29OnFeb28InNonLeapYears() {
+        Map<Integer, Integer> offsets = DueReminderFinder.monthDayOffsets(LocalDate.of(2025, 2, 27), TODAY_TO_TWO_DAYS);
+
+        assertThat(offsets).containsExactly(entry(227, 0), entry(228, 1), entry(229, 1), entry(301, 2));
+    }
+
+    @Test
+    void monthDayOffsetsKeepsFeb29ToItsOwnDayInLeapYears() {
+        Map<Integer, Integer> offsets = DueReminderFinder.monthDayOffsets(LocalDate.of(2024, 2, 27), TODAY_TO_TWO_DAYS);
+
+        assertThat(offsets).containsExactly(entry(227, 0), entry(228, 1), entry(229, 2));
+    }
+
+    @Test
+    void monthDayOffsetsWrapsIntoTheNextYear() {
+        Map<Integer, Integer> offsets = DueReminderFinder.monthDayOffsets(LocalDate.of(2024, 12, 30), TODAY_TO_TWO_DAYS);
+
+        assertThat(offsets).containsExactly(entry(1230, 0), entry(1231, 1), entry(101, 2));
+    }
+
+    @Test
+    void monthDayKeysCoversTheWholeLeadRange() {
+        assertThat(DueReminderFinder.monthDayKeys(LocalDate.of(2024, 1, 1), 1 << 30)).containsExactly(131);
+        assertThat(DueReminderFinder.monthDayKeys(LocalDate.of(2024, 1, 1), 0)).isEmpty();
+    }
+
+    @Test
+    void weeklyDigestLooksUpTheSlotsDayOfWeekAndTheWeekAhead() {
+        // Saturday
+        NotificationSlot slot = new NotificationSlot("UTC", LocalDate.of(2024, 6, 15), 540, 600);
+
+        finder.findWeeklyDigestReminders(slot, List.of(1L));
+
+        assertThat(lookedUpMonthDays(DayOfWeek.SATURDAY)).containsExactly(615, 616, 617, 618, 619, 620, 621);
+    }
+
+    @Test
+    void weeklyDigestCoversTheWeekAcrossTheYearEnd() {
+        NotificationSlot slot = new NotificationSlot("UTC", LocalDate.of(2024, 12, 28), 540, 600);
+        Birthday birthday = digestBirthday(LocalDate.of(1990, 1, 2), DayOfWeek.SATURDAY);
+        when(birthdayRepository.findWeeklyDigestCandidates(any(), eq(DayOfWeek.SATURDAY), any()))
+                .thenReturn(List.of(birthday));
+
+        List<DueReminder> due = finder.findWeeklyDigestReminders(slot, List.of(1L));
+
+        assertThat(lookedUpMonthDays(DayOfWeek.SATURDAY)).containsExactly(1228, 1229, 1230, 1231, 101, 102, 103);
+        assertThat(due).singleElement().satisfies(reminder -> {
+            assertThat(reminder.daysUntil()).isEqualTo(5);
+            assertThat(reminder.birthdayDate()).isEqualTo(LocalDate.of(2025, 1, 2));
+        });
+    }
+
+    @Test
+    void weeklyDigestListsFeb29BirthdaysOnFeb28InNonLeapYears() {
+        // Monday; Feb 28 is four days later
+        NotificationSlot slot = new NotificationSlot("UTC", LocalDate.of(2025, 2, 24), 540, 600);
+        Birthday birthday = digestBirthday(LocalDate.of(2000, 2, 29), DayOfWeek.MONDAY);
+        when(birthdayRepository.findWeeklyDigestCandidates(any(), eq(DayOfWeek.MONDAY), any()))
+                .thenReturn(List.of(birthday));
+
+        List<DueReminder> due = finder.findWeeklyDigestReminders(slot, List.of(1L));
+
+        assertThat(lookedUpMonthDays(DayOfWeek.MONDAY)).containsExactly(224, 225, 226, 227, 228, 229, 301, 302);
+        assertThat(due).singleElement().satisfies(reminder -> {
+            assertThat(reminder.daysUntil()).isEqualTo(4);
+            assertThat(reminder.birthdayDate()).isEqualTo(LocalDate.of(2025, 2, 28));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Integer> lookedUpMonthDays(DayOfWeek dayOfWeek) {
+        ArgumentCaptor<Collection<Integer>> monthDays = ArgumentCaptor.forClass(Collection.class);
+        verify(birthdayRepository).findWeeklyDigestCandidates(eq(List.of(1L)), eq(dayOfWeek), monthDays.capture());
+        return monthDays.getValue();
+    }
+
+    private static Birthday digestBirthday(LocalDate birthDate, DayOfWeek digestDay) {
+        User user = User.builder().id(1L).email("user@example.com").build();
+        user.setNotificationSettings(NotificationSettings.builder().user(user).weeklyDigestDay(digestDay).build());
+        return Birthday.builder().id(10L).user(user).friendName("Friend").birthDate(birthDate).build();
+    }
+}
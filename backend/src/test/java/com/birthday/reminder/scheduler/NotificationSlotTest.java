@@ -0,0 +1,54 @@
+package com.birthday.reminder.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationSlotTest {
+
+    private static final String NEW_YORK = "America/New_York";
+
+    @Test
+    void coversTheLocalMinutesOfTheRange() {
+        assertThat(NotificationSlot.covering(NEW_YORK,
+                Instant.parse("2024-06-10T12:00:00Z"), Instant.parse("2024-06-10T13:00:00Z")))
+                .containsExactly(new NotificationSlot(NEW_YORK, LocalDate.of(2024, 6, 10), 8 * 60, 9 * 60 - 1));
+    }
+
+    @Test
+    void splitsAtLocalMidnight() {
+        assertThat(NotificationSlot.covering(NEW_YORK,
+                Instant.parse("2024-06-11T03:30:00Z"), Instant.parse("2024-06-11T04:30:00Z")))
+                .containsExactly(
+                        new NotificationSlot(NEW_YORK, LocalDate.of(2024, 6, 10), 23 * 60 + 30, 24 * 60 - 1),
+                        new NotificationSlot(NEW_YORK, LocalDate.of(2024, 6, 11), 0, 29));
+    }
+
+    @Test
+    void coversTheSkippedHourWhenClocksSpringForward() {
+        // 01:00 EST to 03:00 EDT; users at 02:xx, which does not exist that day, are still due
+        assertThat(NotificationSlot.covering(NEW_YORK,
+                Instant.parse("2024-03-10T06:00:00Z"), Instant.parse("2024-03-10T07:00:00Z")))
+                .containsExactly(new NotificationSlot(NEW_YORK, LocalDate.of(2024, 3, 10), 60, 3 * 60 - 1));
+    }
+
+    @Test
+    void coversTheRepeatedHourOnceWhenClocksFallBack() {
+        // 01:00 EDT to 01:00 EST covers no new local minutes
+        assertThat(NotificationSlot.covering(NEW_YORK,
+                Instant.parse("2024-11-03T05:00:00Z"), Instant.parse("2024-11-03T06:00:00Z"))).isEmpty();
+        assertThat(NotificationSlot.covering(NEW_YORK,
+                Instant.parse("2024-11-03T06:00:00Z"), Instant.parse("2024-11-03T07:00:00Z")))
+                .containsExactly(new NotificationSlot(NEW_YORK, LocalDate.of(2024, 11, 3), 60, 2 * 60 - 1));
+    }
+
+    @Test
+    void emptyRangeCoversNothing() {
+        Instant now = Instant.parse("2024-06-10T12:00:00Z");
+
+        assertThat(NotificationSlot.covering(NEW_YORK, now, now)).isEmpty();
+    }
+}
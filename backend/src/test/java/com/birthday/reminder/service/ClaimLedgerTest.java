@@ -0,0 +1,190 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.entity.Birthday;
+import com.birthday.reminder.repository.SentGreetingRepository;
+import com.birthday.reminder.repository.SentReminderRepository;
+import com.birthday.reminder.scheduler.DueReminder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Claims through SentReminderLedger and SentGreetingLedger, which share ClaimLedger.
+ * Runs without a test transaction, so every claim commits in its own transaction as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClaimLedgerTest {
+
+    private static final LocalDate BIRTHDAY_DATE = LocalDate.of(2025, 3, 10);
+    private static final int YEAR = BIRTHDAY_DATE.getYear();
+    private static final int LEAD_DAY = 7;
+
+    enum Ledger {
+        REMINDERS,
+        GREETINGS
+    }
+
+    /**
+     * The claims of a ledger, by birthday id.
+     */
+    private interface Claims {
+
+        List<Long> claim(Long... birthdayIds);
+
+        void release(Long... birthdayIds);
+    }
+
+    @Autowired
+    private SentReminderRepository reminderRepository;
+
+    @Autowired
+    private SentGreetingRepository greetingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearLedgers() {
+        reminderRepository.deleteAll();
+        greetingRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Ledger.class)
+    void claimsEachItemOnce(Ledger ledger) {
+        Claims claims = claims(ledger, false);
+
+        assertThat(claims.claim(1L, 2L, 3L)).containsExactly(1L, 2L, 3L);
+        assertThat(claims.claim(1L, 2L, 3L)).isEmpty();
+        assertThat(count(ledger)).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Ledger.class)
+    void claimsOnlyTheItemsNotClaimedYet(Ledger ledger) {
+        Claims claims = claims(ledger, false);
+        claims.claim(1L);
+
+        assertThat(claims.claim(1L, 2L)).containsExactly(2L);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Ledger.class)
+    void releasedItemCanBeClaimedAgain(Ledger ledger) {
+        Claims claims = claims(ledger, false);
+        claims.claim(1L, 2L);
+
+        claims.release(1L);
+
+        assertThat(claims.claim(1L, 2L)).containsExactly(1L);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Ledger.class)
+    void itemClaimedByAConcurrentRunIsSkippedWithoutFailingTheOthers(Ledger ledger) {
+        claims(ledger, false).claim(1L);
+
+        assertThat(claims(ledger, true).claim(1L, 2L)).containsExactly(2L);
+        assertThat(count(ledger)).isEqualTo(2);
+    }
+
+    @Test
+    void remindersAreClaimedPerLeadDay() {
+        SentReminderLedger ledger = new SentReminderLedger(reminderRepository, transactionManager);
+        ledger.claim(List.of(reminder(1, 7)));
+
+        assertThat(ledger.claim(List.of(reminder(1, 7), reminder(1, 1)))).containsExactly(reminder(1, 1));
+    }
+
+    @Test
+    void greetingsAreClaimedOncePerYear() {
+        SentGreetingLedger ledger = new SentGreetingLedger(greetingRepository, transactionManager);
+        List<Birthday> birthdays = List.of(birthday(1), birthday(2));
+        ledger.claim(birthdays, YEAR);
+
+        assertThat(ledger.claim(birthdays, YEAR + 1)).containsExactlyElementsOf(birthdays);
+    }
+
+    /**
+     * @param racing whether the ledger's lookups miss the claims committed by a concurrent run
+     */
+    private Claims claims(Ledger ledger, boolean racing) {
+        return switch (ledger) {
+            case REMINDERS -> {
+                SentReminderRepository repository = reminderRepository;
+                if (racing) {
+                    repository = mock(SentReminderRepository.class, delegatesTo(reminderRepository));
+                    doReturn(List.of()).when(repository).findByBirthdayIdsAndYears(any(), any());
+                }
+                SentReminderLedger reminders = new SentReminderLedger(repository, transactionManager);
+                yield new Claims() {
+                    @Override
+                    public List<Long> claim(Long... birthdayIds) {
+                        return reminders.claim(reminders(birthdayIds)).stream()
+                                .map(reminder -> reminder.birthday().getId())
+                                .toList();
+                    }
+
+                    @Override
+                    public void release(Long... birthdayIds) {
+                        reminders.release(reminders(birthdayIds));
+                    }
+                };
+            }
+            case GREETINGS -> {
+                SentGreetingRepository repository = greetingRepository;
+                if (racing) {
+                    repository = mock(SentGreetingRepository.class, delegatesTo(greetingRepository));
+                    doReturn(List.of()).when(repository).findSentBirthdayIds(any(), anyInt());
+                }
+                SentGreetingLedger greetings = new SentGreetingLedger(repository, transactionManager);
+                yield new Claims() {
+                    @Override
+                    public List<Long> claim(Long... birthdayIds) {
+                        List<Birthday> birthdays = Arrays.stream(birthdayIds).map(ClaimLedgerTest::birthday).toList();
+                        return greetings.claim(birthdays, YEAR).stream().map(Birthday::getId).toList();
+                    }
+
+                    @Override
+                    public void release(Long... birthdayIds) {
+                        greetings.release(List.of(birthdayIds), YEAR);
+                    }
+                };
+            }
+        };
+    }
+
+    private long count(Ledger ledger) {
+        return ledger == Ledger.REMINDERS ? reminderRepository.count() : greetingRepository.count();
+    }
+
+    private static List<DueReminder> reminders(Long... birthdayIds) {
+        return Arrays.stream(birthdayIds).map(id -> reminder(id, LEAD_DAY)).toList();
+    }
+
+    private static DueReminder reminder(long birthdayId, int daysUntil) {
+        return new DueReminder(null, birthday(birthdayId), null, daysUntil, BIRTHDAY_DATE);
+    }
+
+    private static Birthday birthday(long id) {
+        return Birthday.builder().id(id).build();
+    }
+}
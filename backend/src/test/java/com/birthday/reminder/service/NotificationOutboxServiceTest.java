@@ -0,0 +1,100 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.entity.NotificationOutbox;
+import com.birthday.reminder.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxServiceTest {
+
+    private final NotificationOutboxRepository repository = mock(NotificationOutboxRepository.class);
+    private final NotificationOutboxService service =
+            new NotificationOutboxService(repository, 3, Duration.ofMinutes(1), Duration.ofMinutes(5));
+
+    @Test
+    void backoffDoublesAfterEveryAttemptUpToTheMaximum() {
+        assertThat(service.backoff(1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(service.backoff(2)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(service.backoff(3)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(service.backoff(4)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(service.backoff(100)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void failedEntryIsRescheduledWithBackoff() {
+        NotificationOutbox entry = entry(1L, 1);
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.recordOutcomes(List.of(), List.of(1L));
+
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutbox.Status.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(entry.getNextAttemptAt()).isBetween(before.plusMinutes(2), LocalDateTime.now().plusMinutes(2));
+        assertThat(entry.getLastError()).contains("attempt 2");
+    }
+
+    @Test
+    void failedEntryIsDeadLetteredAfterTheLastAttempt() {
+        NotificationOutbox entry = entry(1L, 2);
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        service.recordOutcomes(List.of(), List.of(1L));
+
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutbox.Status.DEAD);
+        assertThat(entry.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void sentEntryIsClosed() {
+        NotificationOutbox entry = entry(1L, 1);
+        entry.setLastError("Delivery failed on attempt 1");
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        service.recordOutcomes(List.of(1L), List.of());
+
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutbox.Status.SENT);
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(entry.getSentAt()).isNotNull();
+        assertThat(entry.getLastError()).isNull();
+    }
+
+    @Test
+    void deferredEntryKeepsItsAttempts() {
+        NotificationOutbox entry = entry(1L, 1);
+        LocalDateTime until = LocalDateTime.now().plusMinutes(1);
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(entry));
+
+        service.defer(List.of(1L), until, "Mail circuit breaker open");
+
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getNextAttemptAt()).isEqualTo(until);
+        assertThat(entry.getStatus()).isEqualTo(NotificationOutbox.Status.PENDING);
+    }
+
+    @Test
+    void purgeDeletesOnlySentAndDeadEntries() {
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        service.purgeFinished(before);
+
+        verify(repository).deleteByStatusInAndCreatedAtBefore(
+                EnumSet.of(NotificationOutbox.Status.SENT, NotificationOutbox.Status.DEAD), before);
+    }
+
+    private static NotificationOutbox entry(Long id, int attempts) {
+        return NotificationOutbox.builder()
+                .id(id)
+                .attempts(attempts)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.birthday.reminder.service;
+
+import com.birthday.reminder.repository.SchedulerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs without a test transaction, so every lease change commits as in production.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLeaseServiceTest {
+
+    private static final String LEASE = "test-lease";
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Autowired
+    private SchedulerLeaseRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SchedulerLeaseService first;
+    private SchedulerLeaseService second;
+
+    @AfterEach
+    void tearDown() {
+        if (first != null) {
+            first.shutdown();
+        }
+        if (second != null) {
+            second.shutdown();
+        }
+        repository.deleteAll();
+    }
+
+    @Test
+    void firstNodeToInsertTheLeaseHoldsIt() {
+        first = new SchedulerLeaseService(repository, transactionManager, "node-a");
+        second = new SchedulerLeaseService(repository, transactionManager, "node-b");
+
+        assertThat(first.tryAcquire(LEASE, TTL)).isTrue();
+        assertThat(second.tryAcquire(LEASE, TTL)).isFalse();
+        assertThat(first.tryAcquire(LEASE, TTL)).isTrue();
+        assertThat(repository.findById(LEASE)).hasValueSatisfying(lease -> assertThat(lease.getOwner()).isEqualTo("node-a"));
+    }
+
+    @Test
+    void expiredLeaseCanBeTakenOver() {
+        first = new SchedulerLeaseService(repository, transactionManager, "node-a");
+        second = new SchedulerLeaseService(repository, transactionManager, "node-b");
+        insertLease("node-a", Instant.now().minusSeconds(1));
+
+        assertThat(second.tryAcquire(LEASE, TTL)).isTrue();
+        assertThat(first.tryAcquire(LEASE, TTL)).isFalse();
+    }
+
+    @Test
+    void leaseInsertedByAConcurrentNodeIsNotOverwritten() {
+        first = new SchedulerLeaseService(repository, transactionManager, "node-a");
+        first.tryAcquire(LEASE, TTL);
+
+        // The other node inserted the lease after this node checked that it did not exist
+        SchedulerLeaseRepository racing = mock(SchedulerLeaseRepository.class, delegatesTo(repository));
+        doReturn(0).when(racing).takeOrRenew(any(), any(), any(), any());
+        doReturn(false).when(racing).existsById(any());
+        second = new SchedulerLeaseService(racing, transactionManager, "node-b");
+
+        assertThat(second.tryAcquire(LEASE, TTL)).isFalse();
+        assertThat(repository.findById(LEASE)).hasValueSatisfying(lease -> assertThat(lease.getOwner()).isEqualTo("node-a"));
+    }
+
+    @Test
+    void renewalReportsALeaseTakenOverByAnotherNode() throws InterruptedException {
+        first = new SchedulerLeaseService(repository, transactionManager, "node-a");
+        insertLease("node-b", Instant.now().plus(TTL));
+
+        try (SchedulerLeaseService.Renewal renewal = first.keepRenewed(LEASE, Duration.ofMillis(30))) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!renewal.isLost() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(renewal.isLost()).isTrue();
+        }
+    }
+
+    private void insertLease(String owner, Instant expiresAt) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> repository.insert(LEASE, owner, expiresAt));
+    }
+}